@@ -13,12 +13,16 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class AccountReceivableService {
 
     private static final Logger logger = LoggerFactory.getLogger(AccountReceivableService.class);
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_TRANSACTION_PAGE_SIZE = 500;
+
     @Inject
     ManageAccountReceivableUseCase useCase;
 
@@ -104,29 +108,53 @@ public class AccountReceivableService {
         return useCase.closeAccount(customerDocument, reason);
     }
 
+    public AccountPostingStatsResponse getPostingStatistics() {
+        return useCase.getPostingStats();
+    }
+
     public AccountStatsResponse getStatistics() {
         logger.debug("Obteniendo estadísticas de cuentas");
         return useCase.getAccountStatistics();
     }
 
-    public List<DebtTransactionDto> getTransactionHistory(String customerDocument, LocalDate startDate, LocalDate endDate) {
-        logger.debug("Obteniendo historial de transacciones: {}", customerDocument);
+    public DebtTransactionPageResponse getTransactionPage(String customerDocument, LocalDate startDate, LocalDate endDate,
+                                                          String cursor, int limit) {
+        logger.debug("Obteniendo página de transacciones: {}", customerDocument);
 
-        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
-            throw new IllegalArgumentException("Fecha de inicio no puede ser mayor a fecha de fin");
+        validateDateRange(startDate, endDate);
+        if (limit < 1 || limit > MAX_TRANSACTION_PAGE_SIZE) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_TRANSACTION_PAGE_SIZE);
         }
 
-        return useCase.getTransactionHistory(customerDocument, startDate, endDate);
+        return useCase.getTransactionPage(customerDocument, startDate, endDate, cursor, limit);
     }
 
-    public List<AccountReceivableDto> searchAccounts(String searchTerm) {
+    // Se valida antes de abrir una respuesta en streaming: una vez abierta ya no se puede devolver un 400
+    public void validateTransactionHistory(String customerDocument, LocalDate startDate, LocalDate endDate) {
+        validateDateRange(startDate, endDate);
+        if (!customerExists(customerDocument)) {
+            throw new IllegalArgumentException("Cliente no encontrado: " + customerDocument);
+        }
+    }
+
+    public void streamTransactionHistory(String customerDocument, LocalDate startDate, LocalDate endDate,
+                                         Consumer<DebtTransactionDto> consumer) {
+        validateDateRange(startDate, endDate);
+        useCase.streamTransactionHistory(customerDocument, startDate, endDate, consumer);
+    }
+
+    public List<AccountSearchResult> searchAccounts(String searchTerm, int limit) {
         logger.debug("Buscando cuentas: {}", searchTerm);
 
         if (searchTerm == null || searchTerm.trim().length() < 2) {
             throw new IllegalArgumentException("Término de búsqueda debe tener al menos 2 caracteres");
         }
 
-        return useCase.searchAccounts(searchTerm);
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_SEARCH_RESULTS);
+        }
+
+        return useCase.searchAccounts(searchTerm, limit);
     }
 
     public AccountReceivable updateCreditLimit(String customerDocument, BigDecimal newCreditLimit) {
@@ -157,6 +185,12 @@ public class AccountReceivableService {
         return useCase.getCustomerDebtAmount(customerDocument);
     }
 
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Fecha de inicio no puede ser mayor a fecha de fin");
+        }
+    }
+
     private void validateCreateAccountRequest(CreateAccountRequest request) {
         if (request.getCustomerName() == null || request.getCustomerName().trim().isEmpty()) {
             throw new IllegalArgumentException("Nombre del cliente es requerido");
@@ -0,0 +1,21 @@
+package org.blackequity.application.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.blackequity.infrastructure.cache.SecondLevelCacheManager;
+import org.blackequity.shared.dto.SecondLevelCacheStatsResponse;
+
+@ApplicationScoped
+public class AdminService {
+
+    @Inject
+    SecondLevelCacheManager secondLevelCache;
+
+    public SecondLevelCacheStatsResponse getSecondLevelCacheStats() {
+        return secondLevelCache.getStats();
+    }
+
+    public void evictSecondLevelCache() {
+        secondLevelCache.evictAll();
+    }
+}
@@ -8,6 +8,8 @@ import org.blackequity.application.usecase.CreateCategoryUseCase;
 import org.blackequity.application.usecase.GetAllCategoriesUseCase;
 import org.blackequity.domain.dto.CategoryDto;
 import org.blackequity.domain.model.Category;
+import org.blackequity.infrastructure.cache.CategorySummaryCache;
+import org.blackequity.shared.dto.CategorySummaryDTO;
 import org.blackequity.shared.dto.CreateCategoryDTO;
 
 import java.util.List;
@@ -25,6 +27,9 @@ public class CategoryService {
     @Inject
     CategoryEntityMapper categoryMapper;
 
+    @Inject
+    CategorySummaryCache categorySummaryCache;
+
     @Transactional
     public void createCategory(CreateCategoryDTO dto) {
         if (dto.getName() == null || dto.getName().isEmpty()) {
@@ -37,4 +42,11 @@ public class CategoryService {
         List<Category> categories = getAllCategoriesUseCase.execute();
         return categoryMapper.toDomainList(categories);
     }
-}
\ No newline at end of file
+
+    public List<CategorySummaryDTO> getCategorySummary(boolean refresh) {
+        if (refresh) {
+            categorySummaryCache.refresh();
+        }
+        return categorySummaryCache.findAll();
+    }
+}
@@ -0,0 +1,268 @@
+package org.blackequity.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.blackequity.application.usecase.CreateProductUseCase;
+import org.blackequity.domain.model.Category;
+import org.blackequity.domain.repository.product.ICategoryRepository;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.shared.dto.CreateProductDTO;
+import org.blackequity.shared.dto.ProductImportResponse;
+import org.blackequity.shared.dto.ProductImportRow;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de productos desde CSV o JSONL leyendo línea a línea.
+ *
+ * Las filas válidas se crean en bloques de product.import.chunk-size, cada uno en su propia
+ * transacción. Si un bloque falla se reintenta fila a fila para aislar las filas erróneas.
+ */
+@ApplicationScoped
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSONL = "jsonl";
+
+    @Inject
+    CreateProductUseCase createProductUseCase;
+
+    @Inject
+    ICategoryRepository categoryRepository;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "product.import.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "product.import.max-reported-errors", defaultValue = "1000")
+    int maxReportedErrors;
+
+    public ProductImportResponse importProducts(InputStream input, String format) throws IOException {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_JSONL.equals(format)) {
+            throw new IllegalArgumentException("Unsupported import format: " + format);
+        }
+
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoryIds.put(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+        }
+
+        ImportState state = new ImportState();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = FORMAT_CSV.equals(format) ? readCsvHeader(reader, state) : null;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                state.lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                state.totalRows++;
+                try {
+                    ProductImportRow row = FORMAT_CSV.equals(format) ? parseCsv(line, header) : objectMapper.readValue(line, ProductImportRow.class);
+                    state.pending.add(toDto(row, categoryIds));
+                    state.pendingLines.add(state.lineNumber);
+                } catch (Exception e) {
+                    state.fail(state.lineNumber, e.getMessage());
+                }
+
+                if (state.pending.size() >= chunkSize) {
+                    flush(state);
+                }
+            }
+        }
+        flush(state);
+
+        logger.info("Importación de productos: {} filas, {} importadas, {} con error",
+                state.totalRows, state.imported, state.failed);
+        return new ProductImportResponse(state.totalRows, state.imported, state.failed,
+                state.failed > state.errors.size(), state.errors);
+    }
+
+    private void flush(ImportState state) {
+        rejectDuplicateBarcodes(state);
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        try {
+            createProductUseCase.executeAll(state.pending);
+            state.imported += state.pending.size();
+        } catch (Exception chunkError) {
+            logger.warn("Bloque de importación fallido, reintentando fila a fila: {}", chunkError.getMessage());
+            for (int i = 0; i < state.pending.size(); i++) {
+                try {
+                    createProductUseCase.executeAll(List.of(state.pending.get(i)));
+                    state.imported++;
+                } catch (Exception rowError) {
+                    state.fail(state.pendingLines.get(i), rowError.getMessage());
+                }
+            }
+        }
+        state.pending.clear();
+        state.pendingLines.clear();
+    }
+
+    /**
+     * Valida los códigos de barras del bloque con una sola consulta IN más un control de repetidos
+     * dentro del propio bloque; las filas rechazadas salen como error y no llegan a la transacción.
+     */
+    private void rejectDuplicateBarcodes(ImportState state) {
+        Set<String> barcodes = new HashSet<>();
+        for (CreateProductDTO dto : state.pending) {
+            if (dto.getBarcode() != null) {
+                barcodes.add(dto.getBarcode());
+            }
+        }
+        if (barcodes.isEmpty()) {
+            return;
+        }
+        // La primera aparición en el fichero gana; las siguientes se rechazan
+        Set<String> taken = new HashSet<>(productRepository.findExistingBarcodes(barcodes));
+        List<CreateProductDTO> accepted = new ArrayList<>(state.pending.size());
+        List<Long> acceptedLines = new ArrayList<>(state.pending.size());
+        for (int i = 0; i < state.pending.size(); i++) {
+            String barcode = state.pending.get(i).getBarcode();
+            if (barcode != null && !taken.add(barcode)) {
+                state.fail(state.pendingLines.get(i), "Barcode already registered: " + barcode);
+            } else {
+                accepted.add(state.pending.get(i));
+                acceptedLines.add(state.pendingLines.get(i));
+            }
+        }
+        state.pending.clear();
+        state.pending.addAll(accepted);
+        state.pendingLines.clear();
+        state.pendingLines.addAll(acceptedLines);
+    }
+
+    private CreateProductDTO toDto(ProductImportRow row, Map<String, Long> categoryIds) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            throw new IllegalArgumentException("Product name cannot be empty");
+        }
+        if (row.getPrice() == null || row.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Product price must be positive");
+        }
+        Long categoryId = row.getCategory() == null ? null : categoryIds.get(row.getCategory().trim().toLowerCase(Locale.ROOT));
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Category not found: " + row.getCategory());
+        }
+
+        CreateProductDTO dto = new CreateProductDTO();
+        dto.setName(row.getName().trim());
+        dto.setBarcode(row.getBarcode() == null || row.getBarcode().isBlank() ? null : row.getBarcode().trim());
+        dto.setPrice(row.getPrice());
+        dto.setStock(row.getStock() == null ? BigDecimal.ZERO : row.getStock());
+        dto.setMinStock(row.getMinStock() == null ? BigDecimal.ZERO : row.getMinStock());
+        dto.setCategoryId(categoryId);
+        return dto;
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader, ImportState state) throws IOException {
+        String headerLine = reader.readLine();
+        state.lineNumber++;
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        List<String> columns = splitCsv(headerLine.replace("\uFEFF", ""));
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "category")) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain column: " + required);
+            }
+        }
+        return header;
+    }
+
+    private ProductImportRow parseCsv(String line, Map<String, Integer> header) {
+        List<String> values = splitCsv(line);
+        ProductImportRow row = new ProductImportRow();
+        row.setName(column(values, header, "name"));
+        row.setBarcode(column(values, header, "barcode"));
+        row.setPrice(decimal(column(values, header, "price")));
+        row.setStock(decimal(column(values, header, "stock")));
+        row.setMinStock(decimal(column(values, header, "minstock")));
+        row.setCategory(column(values, header, "category"));
+        return row;
+    }
+
+    private String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    private BigDecimal decimal(String value) {
+        return value == null || value.isBlank() ? null : new BigDecimal(value.trim());
+    }
+
+    // CSV mínimo (RFC 4180): campos entre comillas con comas y comillas escapadas ("")
+    private List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private final class ImportState {
+        private long lineNumber;
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private final List<CreateProductDTO> pending = new ArrayList<>();
+        private final List<Long> pendingLines = new ArrayList<>();
+        private final List<ProductImportResponse.RowError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportResponse.RowError(line, message));
+            }
+        }
+    }
+}
@@ -1,28 +1,113 @@
 package org.blackequity.application.service;
 
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import org.blackequity.application.usecase.CreateProductUseCase;
 import org.blackequity.application.usecase.GetProductsByCategoryUseCase;
-import org.blackequity.domain.model.Product;
+import org.blackequity.application.usecase.ReconcileStockTakeUseCase;
+import org.blackequity.domain.dto.price.PriceAsOf;
+import org.blackequity.domain.dto.stock.StockAsOf;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.exception.ProductNotFoundException;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.domain.model.ChangeVersion;
+import org.blackequity.domain.repository.product.ICategoryRepository;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.domain.repository.stock.IStockMovementRepository;
+import org.blackequity.infrastructure.cache.BarcodeIndex;
+import org.blackequity.infrastructure.cache.LowStockWatchlist;
+import org.blackequity.infrastructure.cache.PriceHistoryIndex;
+import org.blackequity.infrastructure.cache.ProductCatalogCache;
+import org.blackequity.infrastructure.repository.stock.StockMutationEngine;
+import org.blackequity.infrastructure.reservation.StockReservationManager;
+import org.blackequity.infrastructure.search.ProductSearchIndex;
+import org.blackequity.shared.dto.CatalogCacheStatsResponse;
+import org.blackequity.shared.dto.CatalogChangesResponse;
+import org.blackequity.shared.dto.CategoryChangeDTO;
 import org.blackequity.shared.dto.CreateProductDTO;
+import org.blackequity.shared.dto.PriceListResponse;
+import org.blackequity.shared.dto.ProductChangeDTO;
 import org.blackequity.shared.dto.ProductDTO;
+import org.blackequity.shared.dto.ProductPageResponse;
+import org.blackequity.shared.dto.StockAdjustmentRequest;
+import org.blackequity.shared.dto.StockAdjustmentResponse;
+import org.blackequity.shared.dto.StockAvailabilityResponse;
+import org.blackequity.shared.dto.StockMovementDTO;
+import org.blackequity.shared.dto.StockMutationStatsResponse;
+import org.blackequity.shared.dto.StockReservationRequest;
+import org.blackequity.shared.dto.StockReservationResponse;
+import org.blackequity.shared.dto.StockTakeRequest;
+import org.blackequity.shared.dto.StockTakeResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int MAX_STOCK_TAKE_LINES = 20000;
+
     @Inject
     CreateProductUseCase createProductUseCase;
 
     @Inject
     GetProductsByCategoryUseCase getProductsByCategoryUseCase;
 
+    @Inject
+    ReconcileStockTakeUseCase reconcileStockTakeUseCase;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    ICategoryRepository categoryRepository;
+
+    @Inject
+    IStockMovementRepository stockMovementRepository;
+
+    @Inject
+    StockMutationEngine stockMutationEngine;
+
+    @Inject
+    ProductCatalogCache catalogCache;
+
+    @Inject
+    LowStockWatchlist lowStockWatchlist;
+
+    @Inject
+    ProductSearchIndex searchIndex;
+
+    @Inject
+    PriceHistoryIndex priceHistoryIndex;
+
+    @Inject
+    BarcodeIndex barcodeIndex;
+
+    @Inject
+    StockReservationManager reservationManager;
+
+    @ConfigProperty(name = "quarkus.transaction-manager.default-transaction-timeout", defaultValue = "60s")
+    Duration transactionTimeout;
+
     @Transactional
     public void createProduct(CreateProductDTO dto) {
         if (dto.getName() == null || dto.getName().isEmpty()) {
@@ -35,16 +120,258 @@ public class ProductService {
     }
 
     public List<ProductDTO> getAllProducts() {
+        Optional<List<ProductDTO>> cached = catalogCache.findAll();
+        if (cached.isPresent()) {
+            return cached.get();
+        }
         return createProductUseCase.findAll().stream()
                 .map(product -> new ProductDTO(product.getId(), product.getName(), product.getPrice(), product.getStock(), product.getMinStock()))
                 .collect(Collectors.toList());
     }
 
-    public List<ProductDTO> getProductsByCategory(Long categoryId) {
-        List<Product> products = getProductsByCategoryUseCase.execute(categoryId);
+    public ProductPageResponse getProductsPage(Long afterId, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<ProductDTO> items = productRepository.findPage(afterId, limit);
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return new ProductPageResponse(items, nextCursor);
+    }
 
-        return products.stream()
-                .map(product -> new ProductDTO(product.getId(), product.getName(), product.getPrice(), product.getStock(), product.getMinStock()))
+    /**
+     * Cambios del catálogo posteriores a since, ordenados por versión de cambio. nextSince nunca pasa
+     * del margen de seguridad para no saltarse transacciones que aún no han hecho commit; el cliente
+     * puede recibir filas repetidas y debe aplicarlas como upsert.
+     *
+     * La versión se asigna al hacer flush, que puede ir muy por delante del commit (bloques de
+     * importación, conteos grandes), así que el margen es el timeout de transacción: una transacción
+     * más larga se revierte. Si el cursor de una página llena queda por delante del margen
+     * no se sigue paginando; el cliente vuelve a pedir desde nextSince en su próximo ciclo.
+     */
+    public CatalogChangesResponse getCatalogChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Since must be zero or positive");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Un elemento extra por fuente indica si quedan más cambios
+        List<CategoryChangeDTO> categories = categoryRepository.findChangedSince(since, limit + 1);
+        List<ProductChangeDTO> products = productRepository.findChangedSince(since, limit + 1);
+
+        long cutoff = Math.min(cutoff(categories, limit, CategoryChangeDTO::getChangeVersion),
+                cutoff(products, limit, ProductChangeDTO::getChangeVersion));
+        boolean hasMore = cutoff != Long.MAX_VALUE;
+        long complete = cutoff;
+        if (hasMore) {
+            categories.removeIf(c -> c.getChangeVersion() > cutoff);
+            products.removeIf(p -> p.getChangeVersion() > cutoff);
+        } else {
+            complete = since;
+            for (CategoryChangeDTO category : categories) {
+                complete = Math.max(complete, category.getChangeVersion());
+            }
+            for (ProductChangeDTO product : products) {
+                complete = Math.max(complete, product.getChangeVersion());
+            }
+        }
+
+        long safe = ChangeVersion.at(System.currentTimeMillis() - transactionTimeout.toMillis());
+        long nextSince = Math.max(since, Math.min(complete, safe));
+        return new CatalogChangesResponse(since, nextSince, hasMore && complete <= safe, categories, products);
+    }
+
+    // Versión hasta la que la página está completa; si la fila siguiente comparte versión se retrocede uno
+    private <T> long cutoff(List<T> rows, int limit, ToLongFunction<T> version) {
+        if (rows.size() <= limit) {
+            return Long.MAX_VALUE;
+        }
+        long last = version.applyAsLong(rows.get(limit - 1));
+        return version.applyAsLong(rows.get(limit)) == last ? last - 1 : last;
+    }
+
+    public void streamAllProducts(Consumer<ProductDTO> consumer) {
+        productRepository.streamAll(consumer);
+    }
+
+    public List<ProductDTO> searchProducts(String query, int limit) {
+        if (limit <= 0 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        List<Long> ids = searchIndex.search(query, limit);
+
+        // Se hidrata desde la caché del catálogo; solo los ausentes se consultan en BD
+        Map<Long, ProductDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            catalogCache.findById(id).ifPresentOrElse(dto -> found.put(id, dto), () -> missing.add(id));
+        }
+        productRepository.findDtosByIds(missing).forEach(dto -> found.put(dto.getId(), dto));
+
+        return ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
+
+    public ProductDTO getProductByBarcode(String barcode) {
+        String code = barcode == null ? "" : barcode.trim();
+        if (code.isEmpty()) {
+            throw new IllegalArgumentException("Barcode cannot be empty");
+        }
+
+        OptionalLong productId = barcodeIndex.find(code);
+        if (productId.isPresent()) {
+            Optional<ProductDTO> cached = catalogCache.findById(productId.getAsLong());
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            return productRepository.findDtosByIds(List.of(productId.getAsLong())).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found for barcode: " + code));
+        }
+        if (barcodeIndex.isLoaded()) {
+            throw new ProductNotFoundException("Product not found for barcode: " + code);
+        }
+        return productRepository.findDtoByBarcode(code)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found for barcode: " + code));
+    }
+
+    public List<ProductDTO> getLowStockProducts() {
+        return lowStockWatchlist.findLowStock();
+    }
+
+    public List<ProductDTO> getProductsByCategory(Long categoryId) {
+        Optional<List<ProductDTO>> cached = catalogCache.findByCategory(categoryId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return getProductsByCategoryUseCase.execute(categoryId);
+    }
+
+    /**
+     * Aplica los ajustes en una transacción, o con write-behind activo y sin referencia los anota en el
+     * journal. La anotación va fuera de cualquier transacción, como las ventas de SaleService: nada
+     * queda en el journal de una operación revertida. El journal agrupa por producto y no guarda
+     * referencias, así que un ajuste con referencia se aplica siempre en línea para conservarla.
+     */
+    public StockAdjustmentResponse applyStockAdjustments(StockAdjustmentRequest request) {
+        if (request == null || request.getAdjustments() == null || request.getAdjustments().isEmpty()) {
+            throw new IllegalArgumentException("Adjustments cannot be empty");
+        }
+
+        // Las líneas repetidas del mismo producto se suman en un único delta
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        for (StockAdjustmentRequest.Line line : request.getAdjustments()) {
+            if (line.getProductId() == null || line.getQuantity() == null) {
+                throw new IllegalArgumentException("Each adjustment requires productId and quantity");
+            }
+            deltas.merge(line.getProductId(), line.getQuantity(), BigDecimal::add);
+        }
+
+        StockMovementType type = request.getType() == null ? StockMovementType.ADJUSTMENT : request.getType();
+        String reference = request.getReference() == null || request.getReference().isBlank() ? null : request.getReference();
+        // Con write-behind el stock resultante aún no se conoce; la retención dura hasta que está en el journal
+        if (reference == null && productRepository.canDeferStockDeltas(deltas, type)) {
+            try (StockReservationManager.UnreservedHold hold = reservationManager.holdUnreservedUntilClosed(deltas)) {
+                if (productRepository.deferStockDeltas(deltas, type)) {
+                    return new StockAdjustmentResponse(deltas.size(), Map.of(), true);
+                }
+            }
+        }
+        Map<Long, BigDecimal> stocks = QuarkusTransaction.requiringNew().call(() -> {
+            reservationManager.holdUnreserved(deltas);
+            return productRepository.applyStockDeltas(deltas, type, reference);
+        });
+        return new StockAdjustmentResponse(stocks.size(), stocks, false);
+    }
+
+    public StockTakeResponse reconcileStockTake(StockTakeRequest request) {
+        if (request == null || request.getCounts() == null || request.getCounts().isEmpty()) {
+            throw new IllegalArgumentException("Counts cannot be empty");
+        }
+        if (request.getCounts().size() > MAX_STOCK_TAKE_LINES) {
+            throw new IllegalArgumentException("A stock take cannot exceed " + MAX_STOCK_TAKE_LINES + " lines");
+        }
+        if (!request.isDryRun() && (request.getReason() == null || request.getReason().isBlank())) {
+            throw new IllegalArgumentException("Stock take reason is required");
+        }
+
+        SortedMap<Long, BigDecimal> counted = new TreeMap<>();
+        for (StockTakeRequest.Line line : request.getCounts()) {
+            if (line.getProductId() == null || line.getCounted() == null) {
+                throw new IllegalArgumentException("Each count requires productId and counted");
+            }
+            if (line.getCounted().signum() < 0) {
+                throw new IllegalArgumentException("Counted quantity cannot be negative for product " + line.getProductId());
+            }
+            counted.merge(line.getProductId(), line.getCounted(), BigDecimal::add);
+        }
+
+        // El conteo fija cantidades absolutas: las ventas aún en el journal de write-behind deben estar ya en la BD
+        if (!productRepository.flushDeferredStockDeltas()) {
+            throw new IllegalStateException("Deferred sales are still pending; retry the stock take later");
+        }
+        return request.isDryRun()
+                ? reconcileStockTakeUseCase.preview(counted)
+                : reconcileStockTakeUseCase.execute(counted, request.getReason().trim());
+    }
+
+    public StockAsOf getStockAsOf(Long productId, LocalDateTime at) {
+        return stockMovementRepository.findStockAsOf(productId, at)
+                .orElseThrow(() -> new ProductNotFoundException("No stock history for product " + productId + " at " + at));
+    }
+
+    public List<StockMovementDTO> getStockMovements(Long productId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return stockMovementRepository.findMovements(productId, from, to, limit);
+    }
+
+    public void updatePrice(Long productId, BigDecimal price) {
+        if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Product price must be positive");
+        }
+        productRepository.updatePrice(productId, price);
+    }
+
+    public PriceAsOf getPriceAt(Long productId, LocalDateTime at) {
+        return priceHistoryIndex.priceAt(productId, at)
+                .orElseThrow(() -> new ProductNotFoundException("No price history for product " + productId + " at " + at));
+    }
+
+    public PriceListResponse getPriceListAt(LocalDateTime at) {
+        Map<Long, BigDecimal> prices = priceHistoryIndex.priceListAt(at);
+        return new PriceListResponse(at, prices.size(), prices);
+    }
+
+    public StockReservationResponse reserveStock(StockReservationRequest request) {
+        if (request == null || request.getProductId() == null) {
+            throw new IllegalArgumentException("Product id is required");
+        }
+        return reservationManager.reserve(request.getProductId(), request.getQuantity(),
+                request.getTtlSeconds(), request.getReference());
+    }
+
+    public StockMutationResult commitReservation(String reservationId) {
+        return reservationManager.commit(reservationId);
+    }
+
+    public void releaseReservation(String reservationId) {
+        reservationManager.release(reservationId);
+    }
+
+    public StockAvailabilityResponse getAvailability(Long productId) {
+        return reservationManager.getAvailability(productId);
+    }
+
+    public CatalogCacheStatsResponse getCatalogCacheStats() {
+        return catalogCache.getStats();
+    }
+
+    public StockMutationStatsResponse getStockMutationStats() {
+        return stockMutationEngine.getStats();
+    }
 }
@@ -0,0 +1,87 @@
+package org.blackequity.application.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.blackequity.application.usecase.BookSaleUseCase;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.infrastructure.reservation.StockReservationManager;
+import org.blackequity.printer.domain.TicketItem;
+import org.blackequity.printer.domain.TicketRequest;
+import org.blackequity.shared.dto.SaleResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@ApplicationScoped
+public class SaleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SaleService.class);
+
+    @Inject
+    BookSaleUseCase bookSaleUseCase;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    StockReservationManager reservationManager;
+
+    public SaleResponse bookSale(TicketRequest ticket, boolean print) {
+        if (ticket == null || ticket.getTicketNumber() == null || ticket.getTicketNumber().isBlank()) {
+            throw new IllegalArgumentException("Ticket number is required");
+        }
+        if (ticket.getItems() == null || ticket.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Sale must have at least one item");
+        }
+        if (ticket.getSubtotal() == null || ticket.getTax() == null || ticket.getTotal() == null) {
+            throw new IllegalArgumentException("Subtotal, tax and total are required");
+        }
+        for (TicketItem item : ticket.getItems()) {
+            if (item.getName() == null || item.getName().isBlank()) {
+                throw new IllegalArgumentException("Each item requires a name");
+            }
+            if (item.getQuantity() == null || item.getQuantity() < 1) {
+                throw new IllegalArgumentException("Item quantity must be at least 1");
+            }
+            if (item.getUnitPrice() == null || item.getTotal() == null) {
+                throw new IllegalArgumentException("Each item requires unitPrice and total");
+            }
+        }
+        Map<Long, BigDecimal> deltas = bookSaleUseCase.stockDeltas(ticket);
+        if (deltas.isEmpty() || !productRepository.canDeferStockDeltas(deltas, StockMovementType.SALE)) {
+            return bookSaleUseCase.execute(ticket, print, false);
+        }
+        // Con write-behind la retención dura hasta que el descuento está en el journal, no solo hasta el commit
+        try (StockReservationManager.UnreservedHold hold = reservationManager.holdUnreservedUntilClosed(deltas)) {
+            SaleResponse sale = bookSaleUseCase.execute(ticket, print, true);
+            journalStockDeltas(ticket, sale, deltas);
+            return sale;
+        }
+    }
+
+    /**
+     * La venta ya está confirmada: si el journal no acepta los deltas se aplican en línea en su propia
+     * transacción. Si eso también falla no se lanza nada, porque un reintento del POS chocaría con el
+     * ticket ya registrado; la respuesta lleva stockError y el descuento queda en el log para corregirlo.
+     */
+    private void journalStockDeltas(TicketRequest ticket, SaleResponse sale, Map<Long, BigDecimal> deltas) {
+        try {
+            if (productRepository.deferStockDeltas(deltas, StockMovementType.SALE)) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo anotar la venta {} en el journal de stock, se aplica en línea", ticket.getTicketNumber(), e);
+        }
+        try {
+            sale.getStocks().putAll(productRepository.applyStockDeltas(deltas, StockMovementType.SALE,
+                    "sale:" + ticket.getTicketNumber()));
+            sale.setStockDeferred(false);
+        } catch (RuntimeException e) {
+            logger.error("Venta {} registrada sin descontar stock: {}", ticket.getTicketNumber(), deltas, e);
+            sale.setStockError("Sale registered but stock could not be updated: " + e.getMessage());
+        }
+    }
+}
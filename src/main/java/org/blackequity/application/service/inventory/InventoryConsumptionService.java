@@ -2,15 +2,19 @@ package org.blackequity.application.service.inventory;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import org.blackequity.application.mapper.inventory.InventoryConsumptionMapper;
 import org.blackequity.application.usecase.inventory.ManageInventoryConsumptionUseCase;
 import org.blackequity.domain.dto.inventory.InventoryConsumption;
+import org.blackequity.domain.enums.StockMovementType;
 import org.blackequity.domain.model.inventory.InventoryConsumptionEntity;
 import org.blackequity.domain.repository.inventory.IInventoryConsumptionRepository;
 import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.infrastructure.reservation.StockReservationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class InventoryConsumptionService implements ManageInventoryConsumptionUseCase {
@@ -21,15 +25,21 @@ public class InventoryConsumptionService implements ManageInventoryConsumptionUs
     @Inject
     IProductRepository productRepository;
 
+    @Inject
+    StockReservationManager reservationManager;
+
     @Inject
     InventoryConsumptionMapper mapper;
 
     @Override
+    @Transactional
     public InventoryConsumption create(InventoryConsumption inventoryConsumption) {
         inventoryConsumption.setRegistrationDate(LocalDateTime.now());
         InventoryConsumptionEntity entity = mapper.toEntity(inventoryConsumption);
         inventoryConsumptionRepository.save(entity);
-        productRepository.updateStock(entity.getProductId(), entity.getQuantity().negate());
+        reservationManager.holdUnreserved(Map.of(entity.getProductId(), entity.getQuantity().negate()));
+        productRepository.updateStock(entity.getProductId(), entity.getQuantity().negate(),
+                StockMovementType.CONSUMPTION, "inventory-consumption:" + entity.getId());
         return mapper.toDto(entity);
     }
 
@@ -0,0 +1,109 @@
+package org.blackequity.application.service.inventory;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.blackequity.domain.dto.inventory.CategoryValuation;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.shared.dto.InventoryValuationResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Informe de valorización de inventario por categoría (valor stock * precio, unidades y productos
+ * bajo mínimo), calculado en la BD con un único GROUP BY.
+ *
+ * El resultado se guarda report.valuation.ttl-ms. Cuando caduca, la primera petición lanza la
+ * consulta y las concurrentes esperan ese mismo resultado en vez de repetirla (single-flight).
+ */
+@ApplicationScoped
+public class InventoryValuationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryValuationService.class);
+
+    @Inject
+    IProductRepository productRepository;
+
+    @ConfigProperty(name = "report.valuation.ttl-ms", defaultValue = "30000")
+    long ttlMillis;
+
+    private volatile Snapshot snapshot;
+    private final AtomicReference<CompletableFuture<InventoryValuationResponse>> inFlight = new AtomicReference<>();
+
+    public InventoryValuationResponse getValuation(boolean refresh) {
+        Snapshot current = snapshot;
+        if (!refresh && current != null && System.nanoTime() < current.expiresAt) {
+            return current.report;
+        }
+
+        CompletableFuture<InventoryValuationResponse> mine = new CompletableFuture<>();
+        CompletableFuture<InventoryValuationResponse> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            // Otra petición pudo terminar la consulta entre la comprobación y el CAS
+            current = snapshot;
+            InventoryValuationResponse report = !refresh && current != null && System.nanoTime() < current.expiresAt
+                    ? current.report
+                    : compute();
+            mine.complete(report);
+            return report;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private InventoryValuationResponse compute() {
+        long start = System.nanoTime();
+        List<CategoryValuation> categories = productRepository.findValuationByCategory();
+
+        long productCount = 0;
+        long belowMinimum = 0;
+        BigDecimal stockValue = BigDecimal.ZERO;
+        for (CategoryValuation category : categories) {
+            productCount += category.getProductCount();
+            belowMinimum += category.getBelowMinimumCount();
+            stockValue = stockValue.add(category.getStockValue());
+        }
+
+        InventoryValuationResponse report = new InventoryValuationResponse(LocalDateTime.now(), productCount,
+                stockValue, belowMinimum, categories);
+        snapshot = new Snapshot(report, System.nanoTime() + ttlMillis * 1_000_000L);
+        logger.info("Valorización de inventario calculada: {} categorías en {} ms",
+                categories.size(), (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private InventoryValuationResponse await(CompletableFuture<InventoryValuationResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Snapshot {
+        private final InventoryValuationResponse report;
+        private final long expiresAt;
+
+        private Snapshot(InventoryValuationResponse report, long expiresAt) {
+            this.report = report;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
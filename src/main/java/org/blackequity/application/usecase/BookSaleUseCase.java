@@ -0,0 +1,116 @@
+package org.blackequity.application.usecase;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.domain.event.SaleBookedEvent;
+import org.blackequity.domain.exception.DuplicateSaleException;
+import org.blackequity.domain.model.sale.SaleEntity;
+import org.blackequity.domain.model.sale.SaleLineEntity;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.domain.repository.sale.ISaleRepository;
+import org.blackequity.infrastructure.reservation.StockReservationManager;
+import org.blackequity.printer.domain.TicketItem;
+import org.blackequity.printer.domain.TicketRequest;
+import org.blackequity.shared.dto.SaleResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Registra una venta completa en una sola transacción: cabecera, líneas (INSERT en batch) y todos
+ * los descuentos de stock en un único batch ordenado por id. La impresión se encola tras el commit.
+ * Con write-behind activo los descuentos sin reserva no se aplican aquí: SaleService retiene el stock
+ * antes de llamar (deferStock) y anota los deltas en el journal una vez confirmada la venta, así un
+ * rollback no deja descuentos huérfanos en el journal.
+ */
+@ApplicationScoped
+public class BookSaleUseCase {
+
+    @Inject
+    ISaleRepository saleRepository;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    StockReservationManager reservationManager;
+
+    @Inject
+    Event<SaleBookedEvent> saleBookedEvent;
+
+    @Transactional
+    public SaleResponse execute(TicketRequest ticket, boolean print, boolean deferStock) {
+        if (saleRepository.existsByTicketNumber(ticket.getTicketNumber())) {
+            throw new DuplicateSaleException("Sale already registered for ticket " + ticket.getTicketNumber());
+        }
+
+        SaleEntity sale = SaleEntity.builder()
+                .ticketNumber(ticket.getTicketNumber())
+                .cashierName(ticket.getCashierName())
+                .paymentMethod(ticket.getPaymentMethod())
+                .subtotal(ticket.getSubtotal())
+                .tax(ticket.getTax())
+                .total(ticket.getTotal())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        List<TicketItem> reserved = new ArrayList<>();
+        for (TicketItem item : ticket.getItems()) {
+            sale.getLines().add(SaleLineEntity.builder()
+                    .sale(sale)
+                    .productId(item.getProductId())
+                    .name(item.getName())
+                    .quantity(BigDecimal.valueOf(item.getQuantity()))
+                    .unitPrice(item.getUnitPrice())
+                    .total(item.getTotal())
+                    .build());
+            if (item.getReservationId() != null) {
+                reserved.add(item);
+            }
+        }
+        saleRepository.save(sale);
+
+        Map<Long, BigDecimal> stocks = new LinkedHashMap<>();
+        // La reserva debe cubrir exactamente la línea: producto y cantidad
+        for (TicketItem item : reserved) {
+            StockMutationResult result = reservationManager.commit(item.getReservationId(), item.getProductId(),
+                    BigDecimal.valueOf(item.getQuantity()));
+            stocks.put(result.getProductId(), result.getStock());
+        }
+
+        // Con deferStock el stock ya está retenido y el journal se escribe después del commit (SaleService)
+        Map<Long, BigDecimal> deltas = stockDeltas(ticket);
+        boolean deferred = deferStock && !deltas.isEmpty();
+        if (!deltas.isEmpty() && !deferred) {
+            reservationManager.holdUnreserved(deltas);
+            stocks.putAll(productRepository.applyStockDeltas(deltas, StockMovementType.SALE,
+                    "sale:" + ticket.getTicketNumber()));
+        }
+
+        saleBookedEvent.fire(new SaleBookedEvent(sale.getId(), ticket, print));
+        return new SaleResponse(sale.getId(), sale.getTicketNumber(), sale.getTotal(), stocks, deferred, null, print);
+    }
+
+    /**
+     * Descuentos de las líneas sin reserva, agrupados por producto y ordenados por id. Las líneas
+     * reservadas ya tienen el stock apartado: se confirman en lugar de descontar.
+     */
+    public Map<Long, BigDecimal> stockDeltas(TicketRequest ticket) {
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        for (TicketItem item : ticket.getItems()) {
+            if (item.getReservationId() == null && item.getProductId() != null) {
+                deltas.merge(item.getProductId(), BigDecimal.valueOf(item.getQuantity()).negate(), BigDecimal::add);
+            }
+        }
+        return deltas;
+    }
+}
@@ -1,7 +1,9 @@
 package org.blackequity.application.usecase;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import org.blackequity.domain.event.CategoryCreatedEvent;
 import org.blackequity.domain.model.Category;
 import org.blackequity.domain.repository.product.ICategoryRepository;
 import org.blackequity.shared.dto.CreateCategoryDTO;
@@ -12,9 +14,13 @@ public class CreateCategoryUseCase {
     @Inject
     ICategoryRepository categoryRepository;
 
+    @Inject
+    Event<CategoryCreatedEvent> categoryCreatedEvent;
+
     public void execute(CreateCategoryDTO dto) {
         Category category = new Category();
         category.setName(dto.getName());
         categoryRepository.save(category);
+        categoryCreatedEvent.fire(new CategoryCreatedEvent(category.getId(), category.getName()));
     }
 }
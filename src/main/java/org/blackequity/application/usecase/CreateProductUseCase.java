@@ -1,11 +1,16 @@
 package org.blackequity.application.usecase;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.event.ProductCreatedEvent;
 import org.blackequity.domain.model.Category;
 import org.blackequity.domain.model.Product;
 import org.blackequity.domain.repository.product.ICategoryRepository;
+import org.blackequity.domain.repository.price.IProductPriceHistoryRepository;
 import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.domain.repository.stock.IStockMovementRepository;
 import org.blackequity.shared.dto.CreateProductDTO;
 
 import java.util.List;
@@ -19,18 +24,54 @@ public class CreateProductUseCase {
     @Inject
     ICategoryRepository categoryRepository;
 
+    @Inject
+    IStockMovementRepository stockMovementRepository;
+
+    @Inject
+    IProductPriceHistoryRepository priceHistoryRepository;
+
+    @Inject
+    Event<ProductCreatedEvent> productCreatedEvent;
+
     public void execute(CreateProductDTO dto) {
         Category category = categoryRepository.findById(dto.getCategoryId())
                 .orElseThrow(() -> new IllegalArgumentException("Category not found"));
 
+        String barcode = dto.getBarcode() == null || dto.getBarcode().isBlank() ? null : dto.getBarcode().trim();
+        if (barcode != null && productRepository.findDtoByBarcode(barcode).isPresent()) {
+            throw new IllegalArgumentException("Barcode already registered: " + barcode);
+        }
+        create(dto, category, barcode);
+    }
+
+    /**
+     * Crea los productos de un bloque de importación en una sola transacción sin consultas por fila:
+     * ProductImportService ya validó categorías y códigos de barras del bloque, así ningún flush
+     * automático corta el batch y los INSERT salen agrupados al hacer commit. Un código repetido por
+     * una importación concurrente lo rechaza uk_product_barcode y el bloque se reintenta fila a fila.
+     */
+    @Transactional
+    public void executeAll(List<CreateProductDTO> dtos) {
+        for (CreateProductDTO dto : dtos) {
+            create(dto, categoryRepository.getReference(dto.getCategoryId()), dto.getBarcode());
+        }
+    }
+
+    private void create(CreateProductDTO dto, Category category, String barcode) {
         Product product = new Product();
         product.setName(dto.getName());
+        product.setBarcode(barcode);
         product.setPrice(dto.getPrice());
         product.setStock(dto.getStock());
         product.setMinStock(dto.getMinStock());
         product.setCategory(category);
 
         productRepository.save(product);
+        stockMovementRepository.recordInitial(product.getId(), product.getStock(), product.getVersion());
+        priceHistoryRepository.openInterval(product.getId(), product.getPrice(), product.getCreatedAt());
+        productCreatedEvent.fire(new ProductCreatedEvent(product.getId(), product.getName(), product.getBarcode(),
+                product.getPrice(), product.getStock(), product.getMinStock(), category.getId(), category.getName(),
+                product.getVersion(), product.getCreatedAt()));
     }
 
     public List<Product> findAll() {
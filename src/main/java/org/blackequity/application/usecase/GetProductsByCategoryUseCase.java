@@ -2,13 +2,11 @@ package org.blackequity.application.usecase;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.blackequity.domain.model.Category;
-import org.blackequity.domain.model.Product;
 import org.blackequity.domain.repository.product.ICategoryRepository;
 import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.shared.dto.ProductDTO;
 
 import java.util.List;
-import java.util.Optional;
 
 @ApplicationScoped
 public class GetProductsByCategoryUseCase {
@@ -19,13 +17,13 @@ public class GetProductsByCategoryUseCase {
     @Inject
     ICategoryRepository categoryRepository;
 
-    public List<Product> execute(Long categoryId) {
-        Optional<Category> category = categoryRepository.findById(categoryId);
-        if (category.isEmpty()) {
+    public List<ProductDTO> execute(Long categoryId) {
+        List<ProductDTO> products = productRepository.findDtosByCategoryId(categoryId);
+
+        // Solo se consulta la categoría cuando no hay productos, para distinguir "vacía" de "inexistente"
+        if (products.isEmpty() && !categoryRepository.existsById(categoryId)) {
             throw new IllegalArgumentException("Category not found with id: " + categoryId);
         }
-
-        String categoryName = category.get().getName();
-        return productRepository.findByCategoryName(categoryName);
+        return products;
     }
 }
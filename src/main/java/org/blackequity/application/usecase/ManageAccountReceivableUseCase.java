@@ -9,25 +9,42 @@ import org.blackequity.domain.dto.DebtTransaction;
 import org.blackequity.domain.enums.AccountStatus;
 import org.blackequity.domain.enums.PaymentMethod;
 import org.blackequity.domain.repository.AccountReceivable.AccountReceivableRepository;
+import org.blackequity.infrastructure.cache.AccountStatsCache;
 import org.blackequity.shared.dto.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class ManageAccountReceivableUseCase {
 
     private static final Logger logger = LoggerFactory.getLogger(ManageAccountReceivableUseCase.class);
 
+    private static final String CURSOR_SEPARATOR = "_";
+
     @Inject
     AccountReceivableRepository repository;
 
     @Inject
     AccountReceivableMapper mapper;
 
+    @Inject
+    AccountStatsCache statsCache;
+
+    private final LongAdder debitsPosted = new LongAdder();
+    private final LongAdder paymentsPosted = new LongAdder();
+    private final LongAdder rejectedPostings = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAccumulator maxLockWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder postingNanos = new LongAdder();
+
     @Transactional
     public AccountReceivable createAccount(CreateAccountRequest request) {
         logger.info("Creando cuenta para cliente: {}", request.getCustomerName());
@@ -49,39 +66,81 @@ public class ManageAccountReceivableUseCase {
         return repository.create(account);
     }
 
+    /**
+     * La cuenta se lee con la fila bloqueada hasta el commit, así dos cargos concurrentes no pueden
+     * pasar ambos la comprobación del límite de crédito con el mismo saldo.
+     */
     @Transactional
     public AccountReceivable addDebt(AddDebtRequest request) {
         logger.info("Agregando deuda de ${} para cliente: {}", request.getAmount(), request.getCustomerDocument());
 
-        AccountReceivable account = repository.findByCustomerDocument(request.getCustomerDocument())
-                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + request.getCustomerDocument()));
-
-        // Verificar que se pueda agregar la deuda
-        if (!account.canAddDebt(request.getAmount())) {
-            throw new IllegalStateException("No se puede agregar la deuda. Cuenta inactiva o excede límite de crédito");
+        long start = System.nanoTime();
+        AccountReceivable account = lockAccount(request.getCustomerDocument(), start);
+        try {
+            // Verificar que se pueda agregar la deuda
+            if (!account.canAddDebt(request.getAmount())) {
+                throw new IllegalStateException("No se puede agregar la deuda. Cuenta inactiva o excede límite de crédito");
+            }
+
+            account.addDebt(request.getAmount(), request.getDescription(), request.getReference());
+        } catch (RuntimeException e) {
+            rejectedPostings.increment();
+            throw e;
         }
 
-        account.addDebt(request.getAmount(), request.getDescription(), request.getReference());
-
-        return repository.update(account);
+        AccountReceivable updated = repository.update(account);
+        debitsPosted.increment();
+        postingNanos.add(System.nanoTime() - start);
+        return updated;
     }
 
     @Transactional
     public AccountReceivable makePayment(MakePaymentRequest request) {
         logger.info("Procesando pago de ${} para cliente: {}", request.getAmount(), request.getCustomerDocument());
 
-        AccountReceivable account = repository.findByCustomerDocument(request.getCustomerDocument())
-                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + request.getCustomerDocument()));
+        long start = System.nanoTime();
+        AccountReceivable account = lockAccount(request.getCustomerDocument(), start);
+        try {
+            if (!account.hasDebt()) {
+                throw new IllegalStateException("El cliente no tiene deudas pendientes");
+            }
+
+            PaymentMethod paymentMethod = PaymentMethod.valueOf(request.getPaymentMethod().toUpperCase());
 
-        if (!account.hasDebt()) {
-            throw new IllegalStateException("El cliente no tiene deudas pendientes");
+            account.makePayment(request.getAmount(), request.getDescription(), paymentMethod);
+        } catch (RuntimeException e) {
+            rejectedPostings.increment();
+            throw e;
         }
 
-        PaymentMethod paymentMethod = PaymentMethod.valueOf(request.getPaymentMethod().toUpperCase());
+        AccountReceivable updated = repository.update(account);
+        paymentsPosted.increment();
+        postingNanos.add(System.nanoTime() - start);
+        return updated;
+    }
 
-        account.makePayment(request.getAmount(), request.getDescription(), paymentMethod);
+    private AccountReceivable lockAccount(String customerDocument, long start) {
+        AccountReceivable account = repository.findByCustomerDocumentForUpdate(customerDocument)
+                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + customerDocument));
+        long waited = System.nanoTime() - start;
+        lockWaitNanos.add(waited);
+        maxLockWaitNanos.accumulate(waited);
+        return account;
+    }
 
-        return repository.update(account);
+    public AccountPostingStatsResponse getPostingStats() {
+        long debits = debitsPosted.sum();
+        long payments = paymentsPosted.sum();
+        long rejected = rejectedPostings.sum();
+        long posted = debits + payments;
+        long attempts = posted + rejected;
+        return new AccountPostingStatsResponse(
+                debits,
+                payments,
+                rejected,
+                attempts == 0 ? 0 : lockWaitNanos.sum() / attempts / 1_000,
+                maxLockWaitNanos.get() / 1_000,
+                posted == 0 ? 0 : postingNanos.sum() / posted / 1_000);
     }
 
     public AccountReceivableDto getAccountByDocument(String customerDocument) {
@@ -129,7 +188,7 @@ public class ManageAccountReceivableUseCase {
     public AccountReceivable suspendAccount(String customerDocument, String reason) {
         logger.info("Suspendiendo cuenta del cliente: {}", customerDocument);
 
-        AccountReceivable account = repository.findByCustomerDocument(customerDocument)
+        AccountReceivable account = repository.findByCustomerDocumentForUpdate(customerDocument)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + customerDocument));
 
         account.suspend(reason);
@@ -140,7 +199,7 @@ public class ManageAccountReceivableUseCase {
     public AccountReceivable reactivateAccount(String customerDocument) {
         logger.info("Reactivando cuenta del cliente: {}", customerDocument);
 
-        AccountReceivable account = repository.findByCustomerDocument(customerDocument)
+        AccountReceivable account = repository.findByCustomerDocumentForUpdate(customerDocument)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + customerDocument));
 
         account.reactivate();
@@ -151,7 +210,7 @@ public class ManageAccountReceivableUseCase {
     public AccountReceivable closeAccount(String customerDocument, String reason) {
         logger.info("Cerrando cuenta del cliente: {}", customerDocument);
 
-        AccountReceivable account = repository.findByCustomerDocument(customerDocument)
+        AccountReceivable account = repository.findByCustomerDocumentForUpdate(customerDocument)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + customerDocument));
 
         if (account.hasDebt()) {
@@ -164,74 +223,62 @@ public class ManageAccountReceivableUseCase {
 
     public AccountStatsResponse getAccountStatistics() {
         logger.debug("Generando estadísticas de cuentas por cobrar");
+        return statsCache.get();
+    }
 
-        List<AccountReceivable> allAccounts = repository.findAllAccounts();
-
-        AccountStatsResponse stats = new AccountStatsResponse();
-        stats.setTotalAccounts(allAccounts.size());
-        stats.setActiveAccounts(repository.findByStatus(AccountStatus.ACTIVE).size());
-        stats.setAccountsWithDebt(repository.countAccountsWithDebt());
-        stats.setSuspendedAccounts(repository.findByStatus(AccountStatus.SUSPENDED).size());
-        stats.setTotalDebtAmount(repository.getTotalDebtAmount());
-        stats.setAverageDebtAmount(repository.getAverageDebtAmount());
-
-        // Calcular totales de crédito
-        BigDecimal totalCreditLimit = allAccounts.stream()
-                .map(AccountReceivable::getCreditLimit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.setTotalCreditLimit(totalCreditLimit);
-
-        BigDecimal totalAvailableCredit = allAccounts.stream()
-                .map(AccountReceivable::getAvailableCredit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.setTotalAvailableCredit(totalAvailableCredit);
-
-        // Cuentas vencidas (más de 30 días)
-        List<AccountReceivable> overdueAccounts = repository.findOverdueAccounts(30);
-        stats.setOverdueAccounts(overdueAccounts.size());
-        stats.setOverdueAmount(overdueAccounts.stream()
-                .map(AccountReceivable::getTotalDebt)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
+    public DebtTransactionPageResponse getTransactionPage(String customerDocument, LocalDate startDate, LocalDate endDate,
+                                                          String cursor, int limit) {
+        logger.debug("📜 Consultando página de transacciones: {}", customerDocument);
+
+        String accountId = findAccountId(customerDocument);
+        LocalDate afterDate = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.indexOf(CURSOR_SEPARATOR);
+            if (separator <= 0 || separator == cursor.length() - 1) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            try {
+                afterDate = LocalDate.parse(cursor.substring(0, separator));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+            afterId = cursor.substring(separator + 1);
+        }
 
-        return stats;
+        List<DebtTransaction> transactions = repository.findTransactionsPage(accountId, startDate, endDate,
+                afterDate, afterId, limit);
+        String nextCursor = null;
+        if (transactions.size() == limit) {
+            DebtTransaction last = transactions.get(transactions.size() - 1);
+            nextCursor = last.getTransactionDate() + CURSOR_SEPARATOR + last.getId();
+        }
+        return new DebtTransactionPageResponse(mapper.transactionsToDto(transactions), nextCursor);
     }
 
-    public List<DebtTransactionDto> getTransactionHistory(String customerDocument, LocalDate startDate, LocalDate endDate) {
-        logger.debug("📜 Consultando historial de transacciones: {}", customerDocument);
+    public void streamTransactionHistory(String customerDocument, LocalDate startDate, LocalDate endDate,
+                                         Consumer<DebtTransactionDto> consumer) {
+        String accountId = findAccountId(customerDocument);
+        repository.streamTransactions(accountId, startDate, endDate,
+                transaction -> consumer.accept(mapper.transactionToDto(transaction)));
+    }
 
-        AccountReceivable account = repository.findByCustomerDocument(customerDocument)
+    private String findAccountId(String customerDocument) {
+        return repository.findByCustomerDocument(customerDocument)
+                .map(AccountReceivable::getId)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + customerDocument));
-
-        List<DebtTransaction> transactions = repository.findTransactionsByAccountId(account.getId());
-
-        // Filtrar por fechas si se proporcionan
-        if (startDate != null && endDate != null) {
-            transactions = transactions.stream()
-                    .filter(t -> !t.getTransactionDate().isBefore(startDate) && !t.getTransactionDate().isAfter(endDate))
-                    .collect(java.util.stream.Collectors.toList());
-        }
-
-        return mapper.transactionsToDto(transactions);
     }
 
-    public List<AccountReceivableDto> searchAccounts(String searchTerm) {
+    public List<AccountSearchResult> searchAccounts(String searchTerm, int limit) {
         logger.debug("Buscando cuentas con término: {}", searchTerm);
-
-        List<AccountReceivable> results = repository.findAllAccounts().stream()
-                .filter(account ->
-                        account.getCustomerName().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                                account.getCustomerDocument().contains(searchTerm)
-                )
-                .collect(java.util.stream.Collectors.toList());
-
-        return mapper.toDto(results);
+        return repository.searchAccounts(searchTerm, limit);
     }
 
     @Transactional
     public AccountReceivable updateCreditLimit(String customerDocument, BigDecimal newCreditLimit) {
         logger.info("Actualizando límite de crédito para cliente: {} a ${}", customerDocument, newCreditLimit);
 
-        AccountReceivable account = repository.findByCustomerDocument(customerDocument)
+        AccountReceivable account = repository.findByCustomerDocumentForUpdate(customerDocument)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + customerDocument));
 
         if (newCreditLimit.compareTo(account.getTotalDebt()) < 0) {
@@ -246,7 +293,7 @@ public class ManageAccountReceivableUseCase {
     public void deleteAccount(String customerDocument) {
         logger.info("Eliminando cuenta del cliente: {}", customerDocument);
 
-        AccountReceivable account = repository.findByCustomerDocument(customerDocument)
+        AccountReceivable account = repository.findByCustomerDocumentForUpdate(customerDocument)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado: " + customerDocument));
 
         if (account.hasDebt()) {
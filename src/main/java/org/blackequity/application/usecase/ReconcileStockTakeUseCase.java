@@ -0,0 +1,70 @@
+package org.blackequity.application.usecase;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.dto.stock.StockTakeDiff;
+import org.blackequity.domain.exception.ProductNotFoundException;
+import org.blackequity.domain.model.stock.StockTakeEntity;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.domain.repository.stock.IStockTakeRepository;
+import org.blackequity.shared.dto.StockTakeResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+@ApplicationScoped
+public class ReconcileStockTakeUseCase {
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    IStockTakeRepository stockTakeRepository;
+
+    /**
+     * Vista previa: lee el stock de todos los productos contados en una consulta y calcula las
+     * diferencias en memoria, sin bloquear ni modificar nada.
+     */
+    public StockTakeResponse preview(SortedMap<Long, BigDecimal> counted) {
+        Map<Long, BigDecimal> stocks = productRepository.findStocks(counted.keySet());
+        if (stocks.size() != counted.size()) {
+            List<Long> missing = counted.keySet().stream().filter(id -> !stocks.containsKey(id)).toList();
+            throw new ProductNotFoundException("Products not found: " + missing);
+        }
+
+        List<StockTakeDiff> diffs = new ArrayList<>();
+        for (Map.Entry<Long, BigDecimal> entry : counted.entrySet()) {
+            BigDecimal expected = stocks.get(entry.getKey());
+            BigDecimal delta = entry.getValue().subtract(expected);
+            if (delta.signum() != 0) {
+                diffs.add(new StockTakeDiff(entry.getKey(), expected, entry.getValue(), delta));
+            }
+        }
+        return new StockTakeResponse(null, true, counted.size(), diffs.size(), netDelta(diffs), diffs);
+    }
+
+    @Transactional
+    public StockTakeResponse execute(SortedMap<Long, BigDecimal> counted, String reason) {
+        StockTakeEntity stockTake = StockTakeEntity.builder()
+                .reason(reason)
+                .countedLines(counted.size())
+                .netDelta(BigDecimal.ZERO)
+                .createdAt(LocalDateTime.now())
+                .build();
+        stockTakeRepository.save(stockTake);
+
+        List<StockTakeDiff> diffs = productRepository.reconcileStock(counted, "stock-take:" + stockTake.getId());
+        stockTake.setAdjustedLines(diffs.size());
+        stockTake.setNetDelta(netDelta(diffs));
+        return new StockTakeResponse(stockTake.getId(), false, counted.size(), diffs.size(), stockTake.getNetDelta(), diffs);
+    }
+
+    private BigDecimal netDelta(List<StockTakeDiff> diffs) {
+        return diffs.stream().map(StockTakeDiff::getDelta).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -1,5 +1,6 @@
 package org.blackequity.domain.dto;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.blackequity.domain.enums.AccountStatus;
@@ -28,6 +29,11 @@ public class AccountReceivable {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Transacciones creadas en memoria y aún no persistidas; el repositorio solo inserta estas
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final List<DebtTransaction> pendingTransactions = new ArrayList<>();
+
     public AccountReceivable() {
         this.transactions = new ArrayList<>();
     }
@@ -64,6 +70,7 @@ public class AccountReceivable {
         );
 
         this.transactions.add(transaction);
+        this.pendingTransactions.add(transaction);
         this.totalDebt = this.totalDebt.add(amount);
         this.lastTransactionDate = LocalDate.now();
         this.updatedAt = LocalDateTime.now();
@@ -89,6 +96,7 @@ public class AccountReceivable {
         );
 
         this.transactions.add(transaction);
+        this.pendingTransactions.add(transaction);
         this.totalDebt = this.totalDebt.subtract(amount);
         this.lastTransactionDate = LocalDate.now();
         this.updatedAt = LocalDateTime.now();
@@ -99,6 +107,14 @@ public class AccountReceivable {
         }
     }
 
+    public List<DebtTransaction> pendingTransactions() {
+        return List.copyOf(this.pendingTransactions);
+    }
+
+    public void markTransactionsPersisted() {
+        this.pendingTransactions.clear();
+    }
+
     public void suspend(String reason) {
         this.status = AccountStatus.SUSPENDED;
         this.notes = reason;
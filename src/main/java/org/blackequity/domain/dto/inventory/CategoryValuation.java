@@ -0,0 +1,17 @@
+package org.blackequity.domain.dto.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class CategoryValuation {
+    private final Long categoryId;
+    private final String categoryName;
+    private final long productCount;
+    private final BigDecimal totalStock;
+    private final BigDecimal stockValue;
+    private final long belowMinimumCount; // stock <= minStock, ver Product.isLowStock
+}
@@ -0,0 +1,17 @@
+package org.blackequity.domain.dto.price;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class PriceAsOf {
+    private final Long productId;
+    private final LocalDateTime at;
+    private final BigDecimal price;
+    private final LocalDateTime validFrom;
+    private final LocalDateTime validTo;
+}
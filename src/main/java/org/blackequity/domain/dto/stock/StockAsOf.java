@@ -0,0 +1,17 @@
+package org.blackequity.domain.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class StockAsOf {
+    private final Long productId;
+    private final LocalDateTime at;
+    private final BigDecimal stock;
+    private final Long snapshotVersion;
+    private final long replayedMovements;
+}
@@ -0,0 +1,20 @@
+package org.blackequity.domain.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class StockMutationResult {
+    private final Long productId;
+    private final StockMutationStatus status;
+    private final BigDecimal stock;
+    private final Long version;
+    private final int retries;
+
+    public boolean isApplied() {
+        return status == StockMutationStatus.APPLIED;
+    }
+}
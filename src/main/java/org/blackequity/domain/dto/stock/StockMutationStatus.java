@@ -0,0 +1,7 @@
+package org.blackequity.domain.dto.stock;
+
+public enum StockMutationStatus {
+    APPLIED,
+    REJECTED_NEGATIVE,
+    NOT_FOUND
+}
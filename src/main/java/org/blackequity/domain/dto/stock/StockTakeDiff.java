@@ -0,0 +1,15 @@
+package org.blackequity.domain.dto.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class StockTakeDiff {
+    private final Long productId;
+    private final BigDecimal expected;
+    private final BigDecimal counted;
+    private final BigDecimal delta;
+}
@@ -0,0 +1,18 @@
+package org.blackequity.domain.enums;
+
+public enum ReservationStatus {
+    ACTIVE("Activa"),
+    COMMITTED("Confirmada"),
+    RELEASED("Liberada"),
+    EXPIRED("Expirada");
+
+    private final String displayName;
+
+    ReservationStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
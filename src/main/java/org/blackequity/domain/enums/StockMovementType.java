@@ -0,0 +1,19 @@
+package org.blackequity.domain.enums;
+
+public enum StockMovementType {
+    SALE("Venta"),
+    RECEIPT("Entrada de mercancía"),
+    CONSUMPTION("Consumo interno"),
+    ADJUSTMENT("Ajuste manual"),
+    STOCK_TAKE("Inventario físico");
+
+    private final String displayName;
+
+    StockMovementType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,10 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AccountReceivableChangedEvent {
+    private final String accountId;
+}
@@ -0,0 +1,11 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CategoryCreatedEvent {
+    private final Long categoryId;
+    private final String name;
+}
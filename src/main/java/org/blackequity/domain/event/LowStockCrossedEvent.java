@@ -0,0 +1,16 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class LowStockCrossedEvent {
+    private final Long productId;
+    private final String name;
+    private final BigDecimal stock;
+    private final BigDecimal minStock;
+    private final boolean lowStock; // true = cayó al mínimo o por debajo, false = se recuperó
+}
@@ -0,0 +1,19 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class PriceChangedEvent {
+    private final Long productId;
+    private final BigDecimal oldPrice;
+    private final BigDecimal newPrice;
+    private final LocalDateTime effectiveFrom;
+    private final Long version;
+    // Stock de la fila bloqueada en esa misma versión: la versión es de toda la fila, no solo del precio
+    private final BigDecimal stock;
+}
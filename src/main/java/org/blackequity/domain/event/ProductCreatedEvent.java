@@ -0,0 +1,22 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ProductCreatedEvent {
+    private final Long productId;
+    private final String name;
+    private final String barcode;
+    private final BigDecimal price;
+    private final BigDecimal stock;
+    private final BigDecimal minStock;
+    private final Long categoryId;
+    private final String categoryName;
+    private final Long version;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.blackequity.printer.domain.TicketRequest;
+
+@Getter
+@AllArgsConstructor
+public class SaleBookedEvent {
+    private final Long saleId;
+    private final TicketRequest ticket;
+    private final boolean print;
+}
@@ -0,0 +1,15 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+    private final Long productId;
+    private final BigDecimal delta;
+    private final BigDecimal stock;
+    private final Long version;
+}
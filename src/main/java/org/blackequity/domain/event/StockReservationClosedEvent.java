@@ -0,0 +1,17 @@
+package org.blackequity.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.blackequity.domain.enums.ReservationStatus;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class StockReservationClosedEvent {
+    private final String reservationId;
+    private final Long productId;
+    private final ReservationStatus status;
+    private final BigDecimal stock;
+    private final Long version;
+}
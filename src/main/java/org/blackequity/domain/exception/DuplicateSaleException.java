@@ -0,0 +1,9 @@
+package org.blackequity.domain.exception;
+
+public class DuplicateSaleException extends RuntimeException {
+
+    public DuplicateSaleException(String message) {
+        super(message);
+    }
+
+}
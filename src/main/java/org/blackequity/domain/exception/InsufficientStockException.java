@@ -0,0 +1,9 @@
+package org.blackequity.domain.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+
+}
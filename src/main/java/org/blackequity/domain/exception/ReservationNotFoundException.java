@@ -0,0 +1,9 @@
+package org.blackequity.domain.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+
+    public ReservationNotFoundException(String message) {
+        super(message);
+    }
+
+}
@@ -1,23 +1,29 @@
 package org.blackequity.domain.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
 @Data
-@Table(name = "category")
+@Table(name = "category", indexes = @Index(name = "idx_category_change_version", columnList = "change_version"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class Category {
@@ -32,6 +38,16 @@ public class Category {
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Product> products = new ArrayList<>();
 
+    @ColumnDefault("0")
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    @PrePersist
+    @PreUpdate
+    public void touchChangeVersion() {
+        this.changeVersion = ChangeVersion.next();
+    }
+
     public void addProduct(Product product) {
         products.add(product);
         product.setCategory(this);
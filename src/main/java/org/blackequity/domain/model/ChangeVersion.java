@@ -0,0 +1,38 @@
+package org.blackequity.domain.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versión de cambio del catálogo: reloj híbrido en microsegundos, estrictamente creciente dentro
+ * del proceso. Al ser un instante, el delta-sync puede expresar su margen de seguridad en tiempo.
+ */
+public final class ChangeVersion {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private ChangeVersion() {
+    }
+
+    public static long next() {
+        long now = System.currentTimeMillis() * 1000;
+        return LAST.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    /**
+     * Reserva count versiones consecutivas y devuelve la primera. Sirve para asignar versiones
+     * distintas a muchas filas en un solo UPDATE sin que next() las repita después.
+     */
+    public static long reserve(long count) {
+        while (true) {
+            long last = LAST.get();
+            long first = Math.max(last + 1, System.currentTimeMillis() * 1000);
+            if (LAST.compareAndSet(last, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    public static long at(long epochMillis) {
+        return epochMillis * 1000;
+    }
+}
@@ -18,6 +18,7 @@ import java.time.LocalDateTime;
 @Table(name = "debt_transactions",
         indexes = {
                 @Index(name = "idx_transaction_account", columnList = "account_id"),
+                @Index(name = "idx_transaction_account_date", columnList = "account_id, transaction_date, id"),
                 @Index(name = "idx_transaction_date", columnList = "transaction_date"),
                 @Index(name = "idx_transaction_type", columnList = "type")
         })
@@ -1,38 +1,67 @@
 package org.blackequity.domain.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
 @Getter
 @Setter
-@Table(name = "product")
+@Table(name = "product",
+        indexes = {
+                @Index(name = "idx_product_category_id", columnList = "category_id"),
+                @Index(name = "idx_product_change_version", columnList = "change_version")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_barcode", columnNames = "barcode"))
 @AllArgsConstructor
 @NoArgsConstructor
 public class Product {
 
+    /**
+     * Criterio único de bajo stock: el producto está en su mínimo o por debajo. Lo usan la lista de
+     * bajo stock en memoria y la valoración por categoría en SQL, para que ambas cuenten lo mismo.
+     * El fragmento JPQL asume el alias {@code p} para Product.
+     */
+    public static final String LOW_STOCK_JPQL = "p.stock <= p.minStock";
+
+    public static boolean isLowStock(BigDecimal stock, BigDecimal minStock) {
+        return stock.compareTo(minStock) <= 0;
+    }
+
+    // Secuencia con pool de 50 (como sale_lines): con IDENTITY Hibernate no puede agrupar los INSERT en batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String name;
 
+    // Código de barras o SKU; opcional para los productos dados de alta antes de usar escáner
+    @Column(length = 64)
+    private String barcode;
+
     @Column(nullable = false)
     private BigDecimal price;
 
@@ -46,16 +75,28 @@ public class Product {
     @Column(nullable = false)
     private BigDecimal minStock;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Versión de cambio para el delta-sync; los UPDATE JPQL de stock también la asignan
+    @ColumnDefault("0")
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
     @PrePersist
     public void prePersist() {
         this.createdAt = LocalDateTime.now();
+        this.changeVersion = ChangeVersion.next();
     }
 
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.changeVersion = ChangeVersion.next();
     }
 }
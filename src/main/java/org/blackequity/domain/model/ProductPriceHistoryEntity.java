@@ -0,0 +1,41 @@
+package org.blackequity.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Precio vigente de un producto en [valid_from, valid_to). valid_to nulo = precio actual.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "product_price_history",
+        indexes = @Index(name = "idx_price_history_product_from", columnList = "product_id, valid_from"))
+public class ProductPriceHistoryEntity {
+
+    // Secuencia con pool de 50: con IDENTITY cada intervalo abierto en una importación sale en su propio INSERT
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_price_history_seq")
+    @SequenceGenerator(name = "product_price_history_seq", sequenceName = "product_price_history_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private BigDecimal price;
+
+    @Column(name = "valid_from", nullable = false)
+    private LocalDateTime validFrom;
+
+    @Column(name = "valid_to")
+    private LocalDateTime validTo;
+}
@@ -0,0 +1,57 @@
+package org.blackequity.domain.model.sale;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cabecera de una venta registrada en caja. ticket_number es único y hace idempotente el reenvío
+ * de la misma venta desde el POS.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sales",
+        uniqueConstraints = @UniqueConstraint(name = "uk_sale_ticket_number", columnNames = "ticket_number"),
+        indexes = @Index(name = "idx_sale_created_at", columnList = "created_at"))
+public class SaleEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_seq")
+    @SequenceGenerator(name = "sales_seq", sequenceName = "sales_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "ticket_number", nullable = false, length = 50)
+    private String ticketNumber;
+
+    @Column(name = "cashier_name", length = 100)
+    private String cashierName;
+
+    @Column(name = "payment_method", length = 50)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private BigDecimal subtotal;
+
+    @Column(nullable = false)
+    private BigDecimal tax;
+
+    @Column(nullable = false)
+    private BigDecimal total;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Builder.Default
+    @OneToMany(mappedBy = "sale", cascade = CascadeType.PERSIST)
+    private List<SaleLineEntity> lines = new ArrayList<>();
+}
@@ -0,0 +1,53 @@
+package org.blackequity.domain.model.sale;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Línea de venta. product_id es nulo para conceptos libres que no llevan stock.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sale_lines", indexes = {
+        @Index(name = "idx_sale_line_sale", columnList = "sale_id"),
+        @Index(name = "idx_sale_line_product", columnList = "product_id")
+})
+public class SaleLineEntity {
+
+    // Secuencia en lugar de IDENTITY para que Hibernate pueda agrupar los INSERT en batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_lines_seq")
+    @SequenceGenerator(name = "sale_lines_seq", sequenceName = "sale_lines_seq", allocationSize = 50)
+    private Long id;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "sale_id", nullable = false)
+    private SaleEntity sale;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private BigDecimal quantity;
+
+    @Column(name = "unit_price", nullable = false)
+    private BigDecimal unitPrice;
+
+    @Column(nullable = false)
+    private BigDecimal total;
+}
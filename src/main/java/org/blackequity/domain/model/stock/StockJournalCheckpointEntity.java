@@ -0,0 +1,29 @@
+package org.blackequity.domain.model.stock;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Segmento del journal de stock ya aplicado en BD. Se inserta en la misma transacción que los
+ * deltas, así reaplicar un segmento tras una caída nunca descuenta dos veces.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "stock_journal_checkpoints")
+public class StockJournalCheckpointEntity {
+
+    @Id
+    private Long segment;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,52 @@
+package org.blackequity.domain.model.stock;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.blackequity.domain.enums.StockMovementType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento de stock inmutable. product_version es la @Version de Product tras aplicar el
+ * movimiento, lo que da un orden total por producto independiente del reloj y de la secuencia.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_movements",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_movement_product_version",
+                columnNames = {"product_id", "product_version"}),
+        indexes = @Index(name = "idx_stock_movement_product_created", columnList = "product_id, created_at"))
+public class StockMovementEntity {
+
+    // Secuencia en lugar de IDENTITY para que Hibernate pueda agrupar los INSERT en batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_seq")
+    @SequenceGenerator(name = "stock_movements_seq", sequenceName = "stock_movements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_version", nullable = false)
+    private Long productVersion;
+
+    @Column(nullable = false)
+    private BigDecimal quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockMovementType type;
+
+    @Column(length = 100)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
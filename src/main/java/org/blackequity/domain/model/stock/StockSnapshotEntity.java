@@ -0,0 +1,43 @@
+package org.blackequity.domain.model.stock;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Stock de un producto tras aplicar todos sus movimientos hasta product_version inclusive.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_snapshots",
+        indexes = {
+                @Index(name = "idx_stock_snapshot_product_taken", columnList = "product_id, taken_at"),
+                @Index(name = "idx_stock_snapshot_product_version", columnList = "product_id, product_version")
+        })
+public class StockSnapshotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_snapshots_seq")
+    @SequenceGenerator(name = "stock_snapshots_seq", sequenceName = "stock_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "product_version", nullable = false)
+    private Long productVersion;
+
+    @Column(nullable = false)
+    private BigDecimal stock;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
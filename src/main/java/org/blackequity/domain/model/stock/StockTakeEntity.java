@@ -0,0 +1,42 @@
+package org.blackequity.domain.model.stock;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cabecera de un inventario físico. Los ajustes resultantes quedan en stock_movements con
+ * tipo STOCK_TAKE y referencia "stock-take:{id}".
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_takes")
+public class StockTakeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String reason;
+
+    @Column(name = "counted_lines", nullable = false)
+    private int countedLines;
+
+    @Column(name = "adjusted_lines", nullable = false)
+    private int adjustedLines;
+
+    @Column(name = "net_delta", nullable = false)
+    private BigDecimal netDelta;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
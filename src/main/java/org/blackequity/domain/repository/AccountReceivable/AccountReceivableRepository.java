@@ -3,16 +3,20 @@ package org.blackequity.domain.repository.AccountReceivable;
 import org.blackequity.domain.dto.AccountReceivable;
 import org.blackequity.domain.dto.DebtTransaction;
 import org.blackequity.domain.enums.AccountStatus;
+import org.blackequity.shared.dto.AccountSearchResult;
+import org.blackequity.shared.dto.AccountStatsResponse;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AccountReceivableRepository {
     List<AccountReceivable> findAllAccounts();
     Optional<AccountReceivable> findById(String id);
     Optional<AccountReceivable> findByCustomerDocument(String customerDocument);
+    Optional<AccountReceivable> findByCustomerDocumentForUpdate(String customerDocument);
     List<AccountReceivable> findByStatus(AccountStatus status);
     List<AccountReceivable> findAccountsWithDebt();
     List<AccountReceivable> findOverdueAccounts(int daysOverdue);
@@ -22,14 +26,19 @@ public interface AccountReceivableRepository {
     AccountReceivable update(AccountReceivable account);
     void deleteById(String id);
     boolean existsByCustomerDocument(String customerDocument);
+    List<AccountSearchResult> searchAccounts(String term, int limit);
 
     // Métodos para transacciones
     List<DebtTransaction> findTransactionsByAccountId(String accountId);
     List<DebtTransaction> findTransactionsByDateRange(LocalDate startDate, LocalDate endDate);
+    List<DebtTransaction> findTransactionsPage(String accountId, LocalDate startDate, LocalDate endDate,
+                                               LocalDate afterDate, String afterId, int limit);
+    void streamTransactions(String accountId, LocalDate startDate, LocalDate endDate, Consumer<DebtTransaction> consumer);
     DebtTransaction saveTransaction(String accountId, DebtTransaction transaction);
 
     // Estadísticas
     BigDecimal getTotalDebtAmount();
     long countAccountsWithDebt();
     BigDecimal getAverageDebtAmount();
+    AccountStatsResponse computeStatistics(LocalDate overdueCutoff);
 }
@@ -0,0 +1,14 @@
+package org.blackequity.domain.repository.price;
+
+import org.blackequity.domain.model.ProductPriceHistoryEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IProductPriceHistoryRepository {
+    void openInterval(Long productId, BigDecimal price, LocalDateTime validFrom);
+    void closeCurrent(Long productId, LocalDateTime validTo);
+    int backfillMissing();
+    List<ProductPriceHistoryEntity> findAll();
+}
@@ -1,6 +1,7 @@
 package org.blackequity.domain.repository.product;
 
 import org.blackequity.domain.model.Category;
+import org.blackequity.shared.dto.CategoryChangeDTO;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,6 +9,9 @@ import java.util.Optional;
 public interface ICategoryRepository {
     void save(Category category);
     Optional<Category> findById(Long id);
+    Category getReference(Long id);
+    boolean existsById(Long id);
     List<Category> findAll();
+    List<CategoryChangeDTO> findChangedSince(long since, int limit);
 }
 
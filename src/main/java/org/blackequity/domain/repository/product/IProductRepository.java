@@ -1,14 +1,42 @@
 package org.blackequity.domain.repository.product;
 
 
+import org.blackequity.domain.dto.inventory.CategoryValuation;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.dto.stock.StockTakeDiff;
+import org.blackequity.domain.enums.StockMovementType;
 import org.blackequity.domain.model.Product;
+import org.blackequity.shared.dto.ProductChangeDTO;
+import org.blackequity.shared.dto.ProductDTO;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.Consumer;
 
 public interface IProductRepository {
     void save(Product product);
     List<Product> findAll();
     List<Product> findByCategoryName(String categoryName);
-    void updateStock(Long productId, BigDecimal quantity);
-}
\ No newline at end of file
+    List<ProductDTO> findDtosByCategoryId(Long categoryId);
+    List<ProductDTO> findDtosByIds(Collection<Long> ids);
+    Optional<ProductDTO> findDtoByBarcode(String barcode);
+    Set<String> findExistingBarcodes(Collection<String> barcodes);
+    List<ProductDTO> findPage(Long afterId, int limit);
+    List<ProductChangeDTO> findChangedSince(long since, int limit);
+    void streamAll(Consumer<ProductDTO> consumer);
+    StockMutationResult updateStock(Long productId, BigDecimal quantity, StockMovementType type, String reference);
+    void updatePrice(Long productId, BigDecimal price);
+    Map<Long, BigDecimal> findStocks(Collection<Long> ids);
+    List<CategoryValuation> findValuationByCategory();
+    List<StockTakeDiff> reconcileStock(SortedMap<Long, BigDecimal> counted, String reference);
+    Map<Long, BigDecimal> applyStockDeltas(Map<Long, BigDecimal> deltas, StockMovementType type, String reference);
+    boolean canDeferStockDeltas(Map<Long, BigDecimal> deltas, StockMovementType type);
+    boolean deferStockDeltas(Map<Long, BigDecimal> deltas, StockMovementType type);
+    boolean flushDeferredStockDeltas();
+    Map<Long, BigDecimal> applyJournalSegment(long segment, Map<Long, BigDecimal> deltas);
+}
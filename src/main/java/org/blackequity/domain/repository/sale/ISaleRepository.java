@@ -0,0 +1,8 @@
+package org.blackequity.domain.repository.sale;
+
+import org.blackequity.domain.model.sale.SaleEntity;
+
+public interface ISaleRepository {
+    void save(SaleEntity sale);
+    boolean existsByTicketNumber(String ticketNumber);
+}
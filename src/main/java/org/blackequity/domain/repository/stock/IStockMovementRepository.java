@@ -0,0 +1,19 @@
+package org.blackequity.domain.repository.stock;
+
+import org.blackequity.domain.dto.stock.StockAsOf;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.shared.dto.StockMovementDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface IStockMovementRepository {
+    void recordInitial(Long productId, BigDecimal stock, Long productVersion);
+    void record(List<StockMutationResult> results, Map<Long, BigDecimal> deltas, StockMovementType type, String reference);
+    Optional<StockAsOf> findStockAsOf(Long productId, LocalDateTime at);
+    List<StockMovementDTO> findMovements(Long productId, LocalDateTime from, LocalDateTime to, int limit);
+}
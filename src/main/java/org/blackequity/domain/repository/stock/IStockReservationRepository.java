@@ -0,0 +1,12 @@
+package org.blackequity.domain.repository.stock;
+
+import org.blackequity.domain.enums.ReservationStatus;
+import org.blackequity.domain.model.stock.StockReservationEntity;
+
+import java.util.List;
+
+public interface IStockReservationRepository {
+    void save(StockReservationEntity reservation);
+    boolean close(String reservationId, ReservationStatus status);
+    List<StockReservationEntity> findActive();
+}
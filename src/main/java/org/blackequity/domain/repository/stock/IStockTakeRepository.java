@@ -0,0 +1,7 @@
+package org.blackequity.domain.repository.stock;
+
+import org.blackequity.domain.model.stock.StockTakeEntity;
+
+public interface IStockTakeRepository {
+    void save(StockTakeEntity stockTake);
+}
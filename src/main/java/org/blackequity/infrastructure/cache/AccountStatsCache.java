@@ -0,0 +1,72 @@
+package org.blackequity.infrastructure.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.blackequity.domain.event.AccountReceivableChangedEvent;
+import org.blackequity.domain.repository.AccountReceivable.AccountReceivableRepository;
+import org.blackequity.shared.dto.AccountStatsResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snapshot de las estadísticas de cuentas por cobrar.
+ *
+ * Se recalcula con una única consulta agregada cuando una escritura confirmada lo invalida o cuando
+ * pasan receivables.stats.ttl-ms (las cuentas vencidas dependen de la fecha actual).
+ */
+@ApplicationScoped
+public class AccountStatsCache {
+
+    private static final int OVERDUE_DAYS = 30;
+
+    @Inject
+    AccountReceivableRepository repository;
+
+    @ConfigProperty(name = "receivables.stats.ttl-ms", defaultValue = "5000")
+    long ttlMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public AccountStatsResponse get() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current.stats;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current.stats;
+            }
+            // La generación se lee antes de consultar: una escritura durante la consulta deja el snapshot caducado
+            long observed = generation.get();
+            AccountStatsResponse stats = repository.computeStatistics(LocalDate.now().minusDays(OVERDUE_DAYS));
+            snapshot = new Snapshot(stats, observed, System.nanoTime() + ttlMillis * 1_000_000L);
+            return stats;
+        }
+    }
+
+    void onAccountChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) AccountReceivableChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && current.generation == generation.get() && System.nanoTime() < current.expiresAt;
+    }
+
+    private static final class Snapshot {
+        private final AccountStatsResponse stats;
+        private final long generation;
+        private final long expiresAt;
+
+        private Snapshot(AccountStatsResponse stats, long generation, long expiresAt) {
+            this.stats = stats;
+            this.generation = generation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
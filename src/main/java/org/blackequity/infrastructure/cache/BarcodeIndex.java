@@ -0,0 +1,187 @@
+package org.blackequity.infrastructure.cache;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Índice código de barras → id de producto para el escáner del POS.
+ *
+ * Los códigos numéricos de hasta 17 dígitos (EAN-8/13, UPC-A, GTIN-14) se guardan en una tabla
+ * hash de direccionamiento abierto sobre long[], sin objetos por entrada; la longitud va en la
+ * clave para distinguir ceros a la izquierda. Los SKU alfanuméricos van a un mapa aparte.
+ * Las lecturas son optimistas (StampedLock) y solo se reintentan con lock si hubo una escritura.
+ */
+@ApplicationScoped
+public class BarcodeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarcodeIndex.class);
+
+    private static final int MAX_NUMERIC_DIGITS = 17;
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    @Inject
+    EntityManager entityManager;
+
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Long> alphanumeric = new ConcurrentHashMap<>();
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+    private volatile boolean loaded;
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            List<Object[]> rows = entityManager.createQuery(
+                            "SELECT p.id, p.barcode FROM Product p WHERE p.barcode IS NOT NULL", Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                put((String) row[1], (Long) row[0]);
+            }
+            loaded = true;
+            logger.info("Índice de códigos de barras cargado: {} códigos", rows.size());
+        } catch (Exception e) {
+            logger.error("No se pudo cargar el índice de códigos de barras, se consultará la BD", e);
+        }
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        if (event.getBarcode() != null) {
+            put(event.getBarcode(), event.getProductId());
+        }
+    }
+
+    /**
+     * Con el índice cargado, un resultado vacío significa que el código no existe.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public OptionalLong find(String barcode) {
+        long key = numericKey(barcode);
+        if (key == EMPTY) {
+            Long productId = alphanumeric.get(barcode);
+            return productId == null ? OptionalLong.empty() : OptionalLong.of(productId);
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        long productId = lookup(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                productId = lookup(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return productId == EMPTY ? OptionalLong.empty() : OptionalLong.of(productId);
+    }
+
+    public void put(String barcode, long productId) {
+        long key = numericKey(barcode);
+        if (key == EMPTY) {
+            alphanumeric.put(barcode, productId);
+            return;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 4L > keys.length * 3L) {
+                resize();
+            }
+            if (insert(keys, values, key, productId)) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return size + alphanumeric.size();
+    }
+
+    // Las lecturas optimistas pueden ver arrays a medio escribir: se acota el sondeo y se valida después
+    private long lookup(long key) {
+        long[] currentKeys = keys;
+        long[] currentValues = values;
+        int mask = currentKeys.length - 1;
+        if (currentValues.length != currentKeys.length) {
+            return EMPTY;
+        }
+        int slot = mix(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            long candidate = currentKeys[slot];
+            if (candidate == key) {
+                return currentValues[slot];
+            }
+            if (candidate == EMPTY) {
+                return EMPTY;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    private void resize() {
+        long[] newKeys = new long[keys.length * 2];
+        long[] newValues = new long[values.length * 2];
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static boolean insert(long[] targetKeys, long[] targetValues, long key, long value) {
+        int mask = targetKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (targetKeys[slot] != EMPTY && targetKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        boolean added = targetKeys[slot] == EMPTY;
+        targetValues[slot] = value;
+        targetKeys[slot] = key;
+        return added;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // valor * 32 + nº de dígitos; nunca es 0 porque hay al menos un dígito
+    private static long numericKey(String barcode) {
+        int length = barcode.length();
+        if (length == 0 || length > MAX_NUMERIC_DIGITS) {
+            return EMPTY;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = barcode.charAt(i);
+            if (c < '0' || c > '9') {
+                return EMPTY;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value * 32 + length;
+    }
+}
@@ -0,0 +1,107 @@
+package org.blackequity.infrastructure.cache;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.blackequity.domain.event.CategoryCreatedEvent;
+import org.blackequity.domain.event.PriceChangedEvent;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.blackequity.domain.event.StockChangedEvent;
+import org.blackequity.shared.dto.CategorySummaryDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumen por categoría (nº de productos, unidades y valorización stock * precio).
+ *
+ * Se calcula en la BD con un único GROUP BY: solo viaja una fila por categoría y no se guarda nada
+ * por producto. Las altas de categoría y de producto se suman al momento; los eventos de stock y
+ * precio no traen categoría ni precio anterior, así que marcan el resumen como desactualizado y la
+ * siguiente lectura repite el GROUP BY, como mucho una vez cada category.summary.ttl-ms. Un alta
+ * que el GROUP BY ya incluía también marca el resumen, así el recálculo corrige el doble conteo.
+ */
+@ApplicationScoped
+public class CategorySummaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategorySummaryCache.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "category.summary.ttl-ms", defaultValue = "5000")
+    long ttlMillis;
+
+    private final Map<Long, CategorySummaryDTO> summaries = new TreeMap<>();
+    private boolean stale = true;
+    private long refreshedAt;
+
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("No se pudo calcular el resumen de categorías", e);
+        }
+    }
+
+    public synchronized void refresh() {
+        // Se limpia antes de consultar: un evento durante la consulta deja el resumen marcado de nuevo
+        stale = false;
+        refreshedAt = System.nanoTime();
+        List<Object[]> rows = QuarkusTransaction.requiringNew().call(() -> entityManager.createQuery(
+                        "SELECT c.id, c.name, COUNT(p.id), COALESCE(SUM(p.stock), 0), COALESCE(SUM(p.stock * p.price), 0) " +
+                                "FROM Category c LEFT JOIN c.products p GROUP BY c.id, c.name", Object[].class)
+                .getResultList());
+
+        summaries.clear();
+        for (Object[] row : rows) {
+            summaries.put((Long) row[0], new CategorySummaryDTO((Long) row[0], (String) row[1],
+                    ((Number) row[2]).longValue(), (BigDecimal) row[3], (BigDecimal) row[4]));
+        }
+        logger.debug("Resumen de categorías calculado: {} categorías", summaries.size());
+    }
+
+    public synchronized List<CategorySummaryDTO> findAll() {
+        if (stale && System.nanoTime() - refreshedAt >= ttlMillis * 1_000_000L) {
+            refresh();
+        }
+        List<CategorySummaryDTO> copy = new ArrayList<>(summaries.size());
+        for (CategorySummaryDTO summary : summaries.values()) {
+            copy.add(new CategorySummaryDTO(summary.getId(), summary.getName(), summary.getProductCount(),
+                    summary.getTotalStock(), summary.getStockValue()));
+        }
+        return copy;
+    }
+
+    synchronized void onCategoryCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) CategoryCreatedEvent event) {
+        summaries.putIfAbsent(event.getCategoryId(),
+                new CategorySummaryDTO(event.getCategoryId(), event.getName(), 0, BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    synchronized void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        CategorySummaryDTO summary = summaries.computeIfAbsent(event.getCategoryId(),
+                id -> new CategorySummaryDTO(id, event.getCategoryName(), 0, BigDecimal.ZERO, BigDecimal.ZERO));
+        summary.setProductCount(summary.getProductCount() + 1);
+        summary.setTotalStock(summary.getTotalStock().add(event.getStock()));
+        summary.setStockValue(summary.getStockValue().add(event.getStock().multiply(event.getPrice())));
+        stale = true;
+    }
+
+    synchronized void onStockChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StockChangedEvent event) {
+        stale = true;
+    }
+
+    synchronized void onPriceChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) PriceChangedEvent event) {
+        stale = true;
+    }
+}
@@ -0,0 +1,151 @@
+package org.blackequity.infrastructure.cache;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.event.LowStockCrossedEvent;
+import org.blackequity.domain.event.PriceChangedEvent;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.blackequity.domain.event.StockChangedEvent;
+import org.blackequity.domain.model.Product;
+import org.blackequity.shared.dto.ProductDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice de productos con stock &lt;= minStock, mantenido con cada mutación de stock.
+ *
+ * Guarda el umbral de todos los productos (id, nombre, minStock) y solo materializa los que
+ * están en bajo stock, de modo que GET /products/low-stock cuesta O(resultado).
+ */
+@ApplicationScoped
+public class LowStockWatchlist {
+
+    private static final Logger logger = LoggerFactory.getLogger(LowStockWatchlist.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    Event<LowStockCrossedEvent> lowStockCrossedEvent;
+
+    private final Map<Long, Threshold> thresholds = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, ProductDTO> lowStock = new ConcurrentSkipListMap<>();
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.error("No se pudo cargar la lista de bajo stock", e);
+        }
+    }
+
+    @Transactional
+    public synchronized void reload() {
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT p.id, p.name, p.price, p.stock, p.minStock, p.version FROM Product p", Object[].class)
+                .getResultList();
+
+        thresholds.clear();
+        lowStock.clear();
+        for (Object[] row : rows) {
+            Threshold threshold = new Threshold((String) row[1], (BigDecimal) row[2], (BigDecimal) row[4],
+                    row[5] == null ? 0L : (Long) row[5]);
+            thresholds.put((Long) row[0], threshold);
+            if (threshold.isLow((BigDecimal) row[3])) {
+                lowStock.put((Long) row[0], threshold.toDto((Long) row[0], (BigDecimal) row[3]));
+            }
+        }
+        logger.info("Lista de bajo stock cargada: {} de {} productos", lowStock.size(), thresholds.size());
+    }
+
+    public List<ProductDTO> findLowStock() {
+        return new ArrayList<>(lowStock.values());
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        synchronized (this) {
+            thresholds.put(event.getProductId(), new Threshold(event.getName(), event.getPrice(),
+                    event.getMinStock(), event.getVersion()));
+            evaluate(event.getProductId(), event.getStock());
+        }
+    }
+
+    void onStockChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StockChangedEvent event) {
+        synchronized (this) {
+            Threshold threshold = thresholds.get(event.getProductId());
+            if (threshold == null || event.getVersion() == null || event.getVersion() <= threshold.version) {
+                return;
+            }
+            threshold.version = event.getVersion();
+            evaluate(event.getProductId(), event.getStock());
+        }
+    }
+
+    void onPriceChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) PriceChangedEvent event) {
+        synchronized (this) {
+            Threshold threshold = thresholds.get(event.getProductId());
+            if (threshold == null || event.getVersion() == null || event.getVersion() <= threshold.version) {
+                return;
+            }
+            threshold.version = event.getVersion();
+            threshold.price = event.getNewPrice();
+            // Se reevalúa con el stock de esa versión, que ya incluye cualquier cambio de stock anterior
+            evaluate(event.getProductId(), event.getStock());
+        }
+    }
+
+    private void evaluate(Long productId, BigDecimal stock) {
+        Threshold threshold = thresholds.get(productId);
+        boolean wasLow = lowStock.containsKey(productId);
+        boolean isLow = threshold.isLow(stock);
+
+        if (isLow) {
+            lowStock.put(productId, threshold.toDto(productId, stock));
+        } else {
+            lowStock.remove(productId);
+        }
+
+        if (wasLow != isLow) {
+            logger.info("Producto {} {} su stock mínimo ({} / {})", productId,
+                    isLow ? "alcanzó" : "superó", stock, threshold.minStock);
+            lowStockCrossedEvent.fire(new LowStockCrossedEvent(productId, threshold.name, stock,
+                    threshold.minStock, isLow));
+        }
+    }
+
+    private static final class Threshold {
+        private final String name;
+        private BigDecimal price;
+        private final BigDecimal minStock;
+        private long version;
+
+        private Threshold(String name, BigDecimal price, BigDecimal minStock, long version) {
+            this.name = name;
+            this.price = price;
+            this.minStock = minStock;
+            this.version = version;
+        }
+
+        private boolean isLow(BigDecimal stock) {
+            return Product.isLowStock(stock, minStock);
+        }
+
+        private ProductDTO toDto(Long productId, BigDecimal stock) {
+            return new ProductDTO(productId, name, price, stock, minStock);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.blackequity.infrastructure.cache;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.dto.price.PriceAsOf;
+import org.blackequity.domain.event.PriceChangedEvent;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.blackequity.domain.model.ProductPriceHistoryEntity;
+import org.blackequity.domain.repository.price.IProductPriceHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice en memoria de intervalos de precio por producto (valid_from → precio).
+ *
+ * "Precio de X en T" es un floorEntry sobre el mapa ordenado del producto, O(log n) en el nº de
+ * cambios de precio, y la lista de precios en T repite la búsqueda por producto sin tocar la BD.
+ */
+@ApplicationScoped
+public class PriceHistoryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryIndex.class);
+
+    @Inject
+    IProductPriceHistoryRepository priceHistoryRepository;
+
+    private final Map<Long, ConcurrentSkipListMap<LocalDateTime, Interval>> intervals = new ConcurrentHashMap<>();
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            int backfilled = priceHistoryRepository.backfillMissing();
+            if (backfilled > 0) {
+                logger.info("Historial de precios inicializado para {} productos existentes", backfilled);
+            }
+            intervals.clear();
+            int total = 0;
+            for (ProductPriceHistoryEntity row : priceHistoryRepository.findAll()) {
+                put(row.getProductId(), row.getValidFrom(), row.getValidTo(), row.getPrice());
+                total++;
+            }
+            logger.info("Índice de historial de precios cargado: {} intervalos de {} productos", total, intervals.size());
+        } catch (Exception e) {
+            logger.error("No se pudo cargar el historial de precios", e);
+        }
+    }
+
+    public Optional<PriceAsOf> priceAt(Long productId, LocalDateTime at) {
+        ConcurrentSkipListMap<LocalDateTime, Interval> history = intervals.get(productId);
+        if (history == null) {
+            return Optional.empty();
+        }
+        Map.Entry<LocalDateTime, Interval> entry = history.floorEntry(at);
+        if (entry == null || !entry.getValue().contains(at)) {
+            return Optional.empty();
+        }
+        Interval interval = entry.getValue();
+        return Optional.of(new PriceAsOf(productId, at, interval.price, entry.getKey(), interval.validTo));
+    }
+
+    public Map<Long, BigDecimal> priceListAt(LocalDateTime at) {
+        Map<Long, BigDecimal> prices = new TreeMap<>();
+        intervals.forEach((productId, history) -> {
+            Map.Entry<LocalDateTime, Interval> entry = history.floorEntry(at);
+            if (entry != null && entry.getValue().contains(at)) {
+                prices.put(productId, entry.getValue().price);
+            }
+        });
+        return prices;
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        put(event.getProductId(), event.getCreatedAt(), null, event.getPrice());
+    }
+
+    void onPriceChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) PriceChangedEvent event) {
+        ConcurrentSkipListMap<LocalDateTime, Interval> history =
+                intervals.computeIfAbsent(event.getProductId(), id -> new ConcurrentSkipListMap<>());
+        synchronized (history) {
+            Map.Entry<LocalDateTime, Interval> previous = history.lowerEntry(event.getEffectiveFrom());
+            if (previous != null && previous.getValue().validTo == null) {
+                history.put(previous.getKey(), new Interval(previous.getValue().price, event.getEffectiveFrom()));
+            }
+            history.put(event.getEffectiveFrom(), new Interval(event.getNewPrice(), null));
+        }
+    }
+
+    private void put(Long productId, LocalDateTime validFrom, LocalDateTime validTo, BigDecimal price) {
+        if (validFrom == null) {
+            return;
+        }
+        intervals.computeIfAbsent(productId, id -> new ConcurrentSkipListMap<>())
+                .put(validFrom, new Interval(price, validTo));
+    }
+
+    private static final class Interval {
+        private final BigDecimal price;
+        private final LocalDateTime validTo;
+
+        private Interval(BigDecimal price, LocalDateTime validTo) {
+            this.price = price;
+            this.validTo = validTo;
+        }
+
+        private boolean contains(LocalDateTime at) {
+            return validTo == null || at.isBefore(validTo);
+        }
+    }
+}
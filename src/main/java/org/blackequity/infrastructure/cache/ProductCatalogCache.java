@@ -0,0 +1,233 @@
+package org.blackequity.infrastructure.cache;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.event.PriceChangedEvent;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.blackequity.domain.event.StockChangedEvent;
+import org.blackequity.shared.dto.CatalogCacheStatsResponse;
+import org.blackequity.shared.dto.ProductDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copia en memoria del catálogo de productos, indexada por id y por categoría.
+ *
+ * Se carga al arrancar y se parchea con los eventos de creación, stock y precio tras el commit.
+ * Las lecturas no bloquean; las escrituras se serializan para mantener los índices coherentes.
+ * Si el catálogo supera catalog.cache.max-size la caché deja de estar completa (las lecturas
+ * completas y por categoría vuelven a BD) y se desalojan los productos usados hace más tiempo, así
+ * las búsquedas por id siguen acertando en los calientes. reload recalcula si vuelve a caber entero.
+ */
+@ApplicationScoped
+public class ProductCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "catalog.cache.max-size", defaultValue = "50000")
+    int maxSize;
+
+    private final ConcurrentSkipListMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, Set<Long>> productsByCategory = new ConcurrentHashMap<>();
+    private volatile boolean complete;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.error("No se pudo precargar el catálogo de productos, se leerá desde BD", e);
+        }
+    }
+
+    @Transactional
+    public synchronized void reload() {
+        // Uno de más para saber si el catálogo cabe entero; si no, se quedan los productos más recientes
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT p.id, p.name, p.price, p.stock, p.minStock, p.category.id, p.version FROM Product p " +
+                                "ORDER BY p.id DESC", Object[].class)
+                .setMaxResults(maxSize + 1)
+                .getResultList();
+
+        entries.clear();
+        productsByCategory.clear();
+        complete = rows.size() <= maxSize;
+        for (Object[] row : rows.subList(0, Math.min(rows.size(), maxSize))) {
+            ProductDTO dto = new ProductDTO((Long) row[0], (String) row[1], (BigDecimal) row[2],
+                    (BigDecimal) row[3], (BigDecimal) row[4]);
+            put(dto, (Long) row[5], row[6] == null ? 0L : (Long) row[6]);
+        }
+        logger.info("Catálogo de productos cargado en caché: {} productos (completo: {})", entries.size(), complete);
+    }
+
+    public Optional<List<ProductDTO>> findAll() {
+        if (!complete) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        List<ProductDTO> products = new ArrayList<>(entries.size());
+        entries.values().forEach(entry -> products.add(entry.dto));
+        return Optional.of(products);
+    }
+
+    public Optional<ProductDTO> findById(Long productId) {
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        entry.lastAccess = System.nanoTime();
+        hits.increment();
+        return Optional.of(entry.dto);
+    }
+
+    /**
+     * Devuelve vacío si la caché no está completa o si la categoría no tiene productos cacheados,
+     * para que el llamador valide la categoría contra la BD.
+     */
+    public Optional<List<ProductDTO>> findByCategory(Long categoryId) {
+        Set<Long> ids = productsByCategory.get(categoryId);
+        if (!complete || ids == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        List<ProductDTO> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                products.add(entry.dto);
+            }
+        }
+        return Optional.of(products);
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        ProductDTO dto = new ProductDTO(event.getProductId(), event.getName(), event.getPrice(),
+                event.getStock(), event.getMinStock());
+        synchronized (this) {
+            put(dto, event.getCategoryId(), event.getVersion());
+        }
+    }
+
+    void onStockChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StockChangedEvent event) {
+        synchronized (this) {
+            Entry current = entries.get(event.getProductId());
+            // Los commits concurrentes pueden notificarse fuera de orden: solo se aplica una versión más nueva
+            if (current == null || event.getVersion() == null || event.getVersion() <= current.version) {
+                return;
+            }
+            ProductDTO dto = current.dto;
+            entries.put(event.getProductId(), new Entry(
+                    new ProductDTO(dto.getId(), dto.getName(), dto.getPrice(), event.getStock(), dto.getMinStock()),
+                    current.categoryId,
+                    event.getVersion(),
+                    current.lastAccess));
+        }
+    }
+
+    void onPriceChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) PriceChangedEvent event) {
+        synchronized (this) {
+            Entry current = entries.get(event.getProductId());
+            if (current == null || event.getVersion() == null || event.getVersion() <= current.version) {
+                return;
+            }
+            // El evento trae el stock de su versión: así un StockChangedEvent anterior que llegue tarde no se pierde
+            ProductDTO dto = current.dto;
+            entries.put(event.getProductId(), new Entry(
+                    new ProductDTO(dto.getId(), dto.getName(), event.getNewPrice(), event.getStock(), dto.getMinStock()),
+                    current.categoryId,
+                    event.getVersion(),
+                    current.lastAccess));
+        }
+    }
+
+    private void put(ProductDTO dto, Long categoryId, long version) {
+        Entry previous = entries.put(dto.getId(), new Entry(dto, categoryId, version, System.nanoTime()));
+        if (previous != null && !previous.categoryId.equals(categoryId)) {
+            Set<Long> previousIds = productsByCategory.get(previous.categoryId);
+            if (previousIds != null) {
+                previousIds.remove(dto.getId());
+            }
+        }
+        productsByCategory.computeIfAbsent(categoryId, id -> new ConcurrentSkipListSet<>()).add(dto.getId());
+
+        if (entries.size() > maxSize) {
+            complete = false;
+            evictLeastRecentlyUsed(Math.max(entries.size() - maxSize, maxSize / 100));
+        }
+    }
+
+    // Se desaloja en lotes (1% del tamaño) para amortizar el recorrido completo que busca los menos usados
+    private void evictLeastRecentlyUsed(int count) {
+        PriorityQueue<Map.Entry<Long, Entry>> oldest = new PriorityQueue<>(
+                Comparator.comparingLong((Map.Entry<Long, Entry> e) -> e.getValue().lastAccess).reversed());
+        for (Map.Entry<Long, Entry> candidate : entries.entrySet()) {
+            oldest.offer(candidate);
+            if (oldest.size() > count) {
+                oldest.poll();
+            }
+        }
+        for (Map.Entry<Long, Entry> victim : oldest) {
+            entries.remove(victim.getKey());
+            Set<Long> ids = productsByCategory.get(victim.getValue().categoryId);
+            if (ids != null) {
+                ids.remove(victim.getKey());
+            }
+            evictions.increment();
+        }
+    }
+
+    public CatalogCacheStatsResponse getStats() {
+        return new CatalogCacheStatsResponse(
+                entries.size(),
+                maxSize,
+                complete,
+                hits.sum(),
+                misses.sum(),
+                evictions.sum()
+        );
+    }
+
+    private static final class Entry {
+        private final ProductDTO dto;
+        private final Long categoryId;
+        private final long version;
+        // Escrito sin lock por las lecturas: basta con un valor aproximado para el LRU
+        private volatile long lastAccess;
+
+        private Entry(ProductDTO dto, Long categoryId, long version, long lastAccess) {
+            this.dto = dto;
+            this.categoryId = categoryId;
+            this.version = version;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.blackequity.infrastructure.cache;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.blackequity.domain.event.StockChangedEvent;
+import org.blackequity.domain.model.Category;
+import org.blackequity.domain.model.Product;
+import org.blackequity.shared.dto.SecondLevelCacheStatsResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caché de segundo nivel de Hibernate para Category y Product.
+ *
+ * Las escrituras ORM mantienen la caché por sí solas; los UPDATE nativos de stock no, así que el
+ * producto se vuelve a desalojar tras el commit. Los cambios hechos por otras instancias solo se
+ * ven al expirar la entrada (expiration.max-idle de cada región).
+ */
+@ApplicationScoped
+public class SecondLevelCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheManager.class);
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    void onStockChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StockChangedEvent event) {
+        sessionFactory.getCache().evictEntityData(Product.class, event.getProductId());
+    }
+
+    public void evictAll() {
+        sessionFactory.getCache().evictEntityData(Category.class);
+        sessionFactory.getCache().evictEntityData(Product.class);
+        sessionFactory.getCache().evictQueryRegions();
+        logger.info("Caché de segundo nivel vaciada");
+    }
+
+    public SecondLevelCacheStatsResponse getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<SecondLevelCacheStatsResponse.RegionStats> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            if (stats != null) {
+                regions.add(new SecondLevelCacheStatsResponse.RegionStats(region, stats.getHitCount(),
+                        stats.getMissCount(), stats.getPutCount(), stats.getElementCountInMemory()));
+            }
+        }
+        return new SecondLevelCacheStatsResponse(
+                statistics.isStatisticsEnabled(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                regions);
+    }
+}
@@ -0,0 +1,117 @@
+package org.blackequity.infrastructure.config;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.blackequity.domain.model.ChangeVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Ajustes de esquema que database.generation=update no cubre. Se ejecutan al arrancar con una
+ * conexión en autocommit, fuera de cualquier transacción, y son idempotentes: solo se lanza DDL
+ * cuando falta el objeto, así un arranque normal no bloquea tablas.
+ */
+@ApplicationScoped
+public class SchemaMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMaintenance.class);
+
+    // Índices trigram para la búsqueda de clientes; Hibernate no genera índices GIN ni extensiones
+    private static final Map<String, String> TRIGRAM_INDEXES = Map.of(
+            "idx_account_customer_name_trgm", "accounts_receivable USING gin (lower(customer_name) gin_trgm_ops)",
+            "idx_account_customer_doc_trgm", "accounts_receivable USING gin (customer_document gin_trgm_ops)");
+
+    @Inject
+    DataSource dataSource;
+
+    void onStart(@Observes StartupEvent ev) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            syncSequence(statement, "product_seq", "product");
+            syncSequence(statement, "product_price_history_seq", "product_price_history");
+            backfillChangeVersions(connection, "category");
+            backfillChangeVersions(connection, "product");
+            createTrigramIndexes(connection, statement);
+        } catch (Exception e) {
+            logger.error("No se pudo completar el mantenimiento de esquema", e);
+        }
+    }
+
+    // Tablas que pasaron de IDENTITY a secuencia: la secuencia nueva debe arrancar por encima de los ids existentes
+    private void syncSequence(Statement statement, String sequence, String table) {
+        try {
+            statement.execute("SELECT setval('" + sequence + "', m.id) FROM (SELECT MAX(id) AS id FROM " + table + ") m " +
+                    "WHERE m.id > (SELECT last_value FROM " + sequence + ")");
+        } catch (SQLException e) {
+            logger.error("No se pudo sincronizar {} con los ids existentes", sequence, e);
+        }
+    }
+
+    /**
+     * Las filas anteriores a change_version quedaron con el default 0 y el delta-sync (changeVersion
+     * &gt; since, since=0 en la primera sincronización) nunca las devolvería. Reciben versiones actuales
+     * y distintas entre sí: con una versión compartida una página llena no podría avanzar el cursor.
+     */
+    private void backfillChangeVersions(Connection connection, String table) {
+        try (Statement statement = connection.createStatement();
+             ResultSet pending = statement.executeQuery("SELECT COUNT(*) FROM " + table + " WHERE change_version = 0")) {
+            pending.next();
+            long count = pending.getLong(1);
+            if (count == 0) {
+                return;
+            }
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE " + table + " t SET change_version = ? + r.n " +
+                            "FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY id) - 1 AS n FROM " + table +
+                            " WHERE change_version = 0) r WHERE t.id = r.id")) {
+                update.setLong(1, ChangeVersion.reserve(count));
+                logger.info("Versión de cambio asignada a {} filas de {}", update.executeUpdate(), table);
+            }
+        } catch (SQLException e) {
+            logger.error("No se pudo asignar la versión de cambio a las filas existentes de {}", table, e);
+        }
+    }
+
+    // CONCURRENTLY no bloquea escrituras en accounts_receivable; un intento fallido deja el índice INVALID y se rehace
+    private void createTrigramIndexes(Connection connection, Statement statement) {
+        try {
+            if (!exists(connection, "SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm'", null)) {
+                statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            }
+            for (Map.Entry<String, String> index : TRIGRAM_INDEXES.entrySet()) {
+                String name = index.getKey();
+                if (exists(connection, "SELECT 1 FROM pg_class c JOIN pg_index i ON i.indexrelid = c.oid " +
+                        "WHERE c.relname = ? AND i.indisvalid", name)) {
+                    continue;
+                }
+                statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+                statement.execute("CREATE INDEX CONCURRENTLY " + name + " ON " + index.getValue());
+                logger.info("Índice {} creado", name);
+            }
+        } catch (SQLException e) {
+            logger.warn("No se pudieron crear los índices trigram de clientes, la búsqueda no usará índice: {}", e.getMessage());
+        }
+    }
+
+    private static boolean exists(Connection connection, String sql, String parameter) throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            if (parameter != null) {
+                query.setString(1, parameter);
+            }
+            try (ResultSet rows = query.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+}
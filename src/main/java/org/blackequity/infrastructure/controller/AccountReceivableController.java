@@ -1,16 +1,21 @@
 package org.blackequity.infrastructure.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.blackequity.application.service.AccountReceivableService;
 import org.blackequity.domain.dto.AccountReceivable;
 import org.blackequity.shared.dto.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -26,6 +31,9 @@ public class AccountReceivableController {
     @Inject
     AccountReceivableService service;
 
+    @Inject
+    ObjectMapper objectMapper;
+
     @POST
     public Response createAccount(@Valid CreateAccountRequest request) {
         logger.info("POST /api/accounts-receivable - Creando cuenta para: {}", request.getCustomerName());
@@ -234,16 +242,25 @@ public class AccountReceivableController {
     @Path("/customer/{customerDocument}/transactions")
     public Response getTransactionHistory(@PathParam("customerDocument") String customerDocument,
                                           @QueryParam("startDate") String startDateStr,
-                                          @QueryParam("endDate") String endDateStr) {
+                                          @QueryParam("endDate") String endDateStr,
+                                          @QueryParam("cursor") String cursor,
+                                          @QueryParam("limit") Integer limit) {
         logger.info("GET /api/accounts-receivable/customer/{}/transactions - Historial", customerDocument);
 
         try {
             LocalDate startDate = startDateStr != null ? LocalDate.parse(startDateStr) : null;
             LocalDate endDate = endDateStr != null ? LocalDate.parse(endDateStr) : null;
 
-            List<DebtTransactionDto> transactions = service.getTransactionHistory(customerDocument, startDate, endDate);
-            logger.info("{} transacciones encontradas para: {}", transactions.size(), customerDocument);
-            return Response.ok(transactions).build();
+            if (cursor != null || limit != null) {
+                DebtTransactionPageResponse page = service.getTransactionPage(customerDocument, startDate, endDate,
+                        cursor, limit == null ? 100 : limit);
+                return Response.ok(page).build();
+            }
+
+            // Sin cursor ni límite se devuelve el historial completo como array, pero en streaming: nunca
+            // se arma la lista entera en memoria
+            service.validateTransactionHistory(customerDocument, startDate, endDate);
+            return Response.ok(streamTransactions(customerDocument, startDate, endDate)).build();
         } catch (IllegalArgumentException e) {
             logger.warn("Error en historial de transacciones: {}", e.getMessage());
             return Response.status(Response.Status.BAD_REQUEST)
@@ -254,6 +271,23 @@ public class AccountReceivableController {
         }
     }
 
+    private StreamingOutput streamTransactions(String customerDocument, LocalDate startDate, LocalDate endDate) {
+        // Escribe el array JSON movimiento a movimiento, página a página desde la BD, con memoria constante
+        return output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                service.streamTransactionHistory(customerDocument, startDate, endDate, transaction -> {
+                    try {
+                        generator.writeObject(transaction);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
     @GET
     @Path("/customer/{customerDocument}/debt-amount")
     public Response getCustomerDebt(@PathParam("customerDocument") String customerDocument) {
@@ -272,6 +306,36 @@ public class AccountReceivableController {
         }
     }
 
+    @GET
+    @Path("/search")
+    public Response searchAccounts(@QueryParam("q") String query,
+                                   @QueryParam("limit") @DefaultValue("20") int limit) {
+        logger.debug("GET /api/accounts-receivable/search?q={} - Búsqueda de clientes", query);
+
+        try {
+            List<AccountSearchResult> results = service.searchAccounts(query, limit);
+            return Response.ok(results).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage())).build();
+        } catch (Exception e) {
+            logger.error("Error buscando cuentas: {}", query, e);
+            return Response.serverError().build();
+        }
+    }
+
+    @GET
+    @Path("/posting/statistics")
+    public Response getPostingStatistics() {
+        try {
+            AccountPostingStatsResponse stats = service.getPostingStatistics();
+            return Response.ok(stats).build();
+        } catch (Exception e) {
+            logger.error("Error obteniendo métricas de registro de movimientos", e);
+            return Response.serverError().build();
+        }
+    }
+
     @GET
     @Path("/statistics")
     public Response getStatistics() {
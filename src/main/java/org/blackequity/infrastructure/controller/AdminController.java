@@ -0,0 +1,74 @@
+package org.blackequity.infrastructure.controller;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.blackequity.application.service.AdminService;
+import org.blackequity.shared.dto.SecondLevelCacheStatsResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+
+@Path("/admin")
+@Produces(MediaType.APPLICATION_JSON)
+public class AdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    @Inject
+    AdminService adminService;
+
+    // Sin admin.token configurado las operaciones destructivas quedan deshabilitadas
+    @ConfigProperty(name = "admin.token")
+    Optional<String> adminToken;
+
+    @GET
+    @Path("/cache/second-level/stats")
+    public Response getSecondLevelCacheStats() {
+        try {
+            SecondLevelCacheStatsResponse stats = adminService.getSecondLevelCacheStats();
+            return Response.ok(stats).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @DELETE
+    @Path("/cache/second-level")
+    public Response evictSecondLevelCache(@HeaderParam("X-Admin-Token") String token) {
+        if (!authorized(token)) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity(Map.of("error", "Admin token required"))
+                    .build();
+        }
+        try {
+            adminService.evictSecondLevelCache();
+            logger.info("Caché de segundo nivel vaciada por petición de administración");
+            return Response.noContent().build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    private boolean authorized(String token) {
+        if (adminToken.isEmpty() || adminToken.get().isBlank() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.get().getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+}
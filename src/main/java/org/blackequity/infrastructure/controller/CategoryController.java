@@ -6,6 +6,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.blackequity.application.service.CategoryService;
 import org.blackequity.domain.dto.CategoryDto;
+import org.blackequity.shared.dto.CategorySummaryDTO;
 import org.blackequity.shared.dto.CreateCategoryDTO;
 
 import java.util.List;
@@ -44,4 +45,17 @@ public class CategoryController {
                     .build();
         }
     }
+
+    @GET
+    @Path("/summary")
+    public Response getCategorySummary(@QueryParam("refresh") boolean refresh) {
+        try {
+            List<CategorySummaryDTO> summary = categoryService.getCategorySummary(refresh);
+            return Response.ok(summary).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
 }
@@ -1,13 +1,49 @@
 package org.blackequity.infrastructure.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.blackequity.application.service.ProductImportService;
 import org.blackequity.application.service.ProductService;
+import org.blackequity.domain.dto.price.PriceAsOf;
+import org.blackequity.domain.dto.stock.StockAsOf;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.exception.InsufficientStockException;
+import org.blackequity.domain.exception.ReservationNotFoundException;
+import org.blackequity.infrastructure.stream.StockEventBroadcaster;
+import org.blackequity.domain.exception.ProductNotFoundException;
+import org.blackequity.shared.dto.CatalogCacheStatsResponse;
+import org.blackequity.shared.dto.CatalogChangesResponse;
 import org.blackequity.shared.dto.CreateProductDTO;
+import org.blackequity.shared.dto.PriceListResponse;
 import org.blackequity.shared.dto.ProductDTO;
+import org.blackequity.shared.dto.ProductImportResponse;
+import org.blackequity.shared.dto.ProductPageResponse;
+import org.blackequity.shared.dto.StockAdjustmentRequest;
+import org.blackequity.shared.dto.StockAdjustmentResponse;
+import org.blackequity.shared.dto.StockAvailabilityResponse;
+import org.blackequity.shared.dto.StockMovementDTO;
+import org.blackequity.shared.dto.StockMutationStatsResponse;
+import org.blackequity.shared.dto.StockReservationRequest;
+import org.blackequity.shared.dto.StockReservationResponse;
+import org.blackequity.shared.dto.StockTakeRequest;
+import org.blackequity.shared.dto.StockTakeResponse;
+import org.blackequity.shared.dto.UpdatePriceRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
@@ -16,9 +52,20 @@ import java.util.Map;
 @Consumes(MediaType.APPLICATION_JSON)
 public class ProductController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
+
     @Inject
     ProductService productService;
 
+    @Inject
+    ProductImportService productImportService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    StockEventBroadcaster stockEventBroadcaster;
+
     @POST
     @Path("/create")
     public Response createProduct(CreateProductDTO dto) {
@@ -32,12 +79,148 @@ public class ProductController {
         }
     }
 
+    @POST
+    @Path("/import")
+    @Consumes({"text/csv", "application/x-ndjson", "application/jsonl", MediaType.TEXT_PLAIN})
+    public Response importProducts(InputStream body,
+                                   @HeaderParam("Content-Type") String contentType,
+                                   @QueryParam("format") String format) {
+        try {
+            String resolved = format != null ? format.toLowerCase()
+                    : contentType != null && contentType.contains("csv") ? ProductImportService.FORMAT_CSV
+                    : ProductImportService.FORMAT_JSONL;
+            ProductImportResponse response = productImportService.importProducts(body, resolved);
+            return Response.ok(response).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado importando productos", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
     @GET
-    public Response getAllProducts() {
+    public Response getAllProducts(@QueryParam("afterId") Long afterId,
+                                   @QueryParam("limit") Integer limit,
+                                   @QueryParam("stream") boolean stream) {
         try {
+            if (stream) {
+                return Response.ok(streamProducts()).build();
+            }
+            if (afterId != null || limit != null) {
+                ProductPageResponse page = productService.getProductsPage(afterId, limit == null ? 100 : limit);
+                return Response.ok(page).build();
+            }
             List<ProductDTO> products = productService.getAllProducts();
             return Response.ok(products).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
         } catch (Exception e) {
+            logger.error("Error inesperado listando productos", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    private StreamingOutput streamProducts() {
+        // Escribe el array JSON producto a producto, página a página desde la BD, con memoria constante
+        return output -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                productService.streamAllProducts(product -> {
+                    try {
+                        generator.writeObject(product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    @GET
+    @Path("/changes")
+    public Response getCatalogChanges(@QueryParam("since") @DefaultValue("0") long since,
+                                      @QueryParam("limit") @DefaultValue("500") int limit) {
+        try {
+            CatalogChangesResponse changes = productService.getCatalogChanges(since, limit);
+            return Response.ok(changes).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando cambios del catálogo: since={}", since, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamStockChanges(@Context SseEventSink sink, @Context Sse sse) {
+        stockEventBroadcaster.register(sink, sse);
+    }
+
+    @GET
+    @Path("/search")
+    public Response searchProducts(@QueryParam("q") String query,
+                                   @QueryParam("limit") @DefaultValue("10") int limit) {
+        try {
+            List<ProductDTO> products = productService.searchProducts(query, limit);
+            return Response.ok(products).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado buscando productos: {}", query, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/barcode/{code}")
+    public Response getProductByBarcode(@PathParam("code") String code) {
+        try {
+            ProductDTO product = productService.getProductByBarcode(code);
+            return Response.ok(product).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado buscando el código de barras {}", code, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/low-stock")
+    public Response getLowStockProducts() {
+        try {
+            List<ProductDTO> products = productService.getLowStockProducts();
+            return Response.ok(products).build();
+        } catch (Exception e) {
+            logger.error("Error inesperado listando productos con bajo stock", e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", e.getMessage()))
                     .build();
@@ -55,9 +238,284 @@ public class ProductController {
                     .entity(Map.of("error", "Category not found"))
                     .build();
         } catch (Exception e) {
+            logger.error("Error inesperado listando productos de la categoría {}", categoryId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/stock/adjustments")
+    public Response applyStockAdjustments(StockAdjustmentRequest request) {
+        try {
+            StockAdjustmentResponse response = productService.applyStockAdjustments(request);
+            return Response.ok(response).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (InsufficientStockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado aplicando ajustes de stock", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/stock/takes")
+    public Response reconcileStockTake(StockTakeRequest request) {
+        try {
+            StockTakeResponse response = productService.reconcileStockTake(request);
+            return Response.ok(response).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado conciliando conteo de inventario", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/reservations")
+    public Response reserveStock(StockReservationRequest request) {
+        try {
+            StockReservationResponse reservation = productService.reserveStock(request);
+            return Response.status(Response.Status.CREATED).entity(reservation).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (InsufficientStockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado reservando stock", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @POST
+    @Path("/reservations/{reservationId}/commit")
+    public Response commitReservation(@PathParam("reservationId") String reservationId) {
+        try {
+            StockMutationResult result = productService.commitReservation(reservationId);
+            return Response.ok(result).build();
+        } catch (ReservationNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (InsufficientStockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado confirmando la reserva {}", reservationId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @DELETE
+    @Path("/reservations/{reservationId}")
+    public Response releaseReservation(@PathParam("reservationId") String reservationId) {
+        try {
+            productService.releaseReservation(reservationId);
+            return Response.noContent().build();
+        } catch (ReservationNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado liberando la reserva {}", reservationId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/{productId}/availability")
+    public Response getAvailability(@PathParam("productId") Long productId) {
+        try {
+            StockAvailabilityResponse availability = productService.getAvailability(productId);
+            return Response.ok(availability).build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando disponibilidad del producto {}", productId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/{productId}/stock")
+    public Response getStockAsOf(@PathParam("productId") Long productId, @QueryParam("at") String at) {
+        try {
+            LocalDateTime instant = at == null ? LocalDateTime.now() : LocalDateTime.parse(at);
+            StockAsOf stock = productService.getStockAsOf(productId, instant);
+            return Response.ok(stock).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", "Invalid date, expected ISO format: " + at))
+                    .build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando stock histórico del producto {}", productId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @PUT
+    @Path("/{productId}/price")
+    public Response updatePrice(@PathParam("productId") Long productId, UpdatePriceRequest request) {
+        try {
+            productService.updatePrice(productId, request == null ? null : request.getPrice());
+            return Response.ok(Map.of("message", "Price updated successfully")).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado actualizando el precio del producto {}", productId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/{productId}/price")
+    public Response getPriceAt(@PathParam("productId") Long productId, @QueryParam("at") String at) {
+        try {
+            LocalDateTime instant = at == null ? LocalDateTime.now() : LocalDateTime.parse(at);
+            PriceAsOf price = productService.getPriceAt(productId, instant);
+            return Response.ok(price).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", "Invalid date, expected ISO format: " + at))
+                    .build();
+        } catch (ProductNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando el precio del producto {}", productId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/prices")
+    public Response getPriceListAt(@QueryParam("at") String at) {
+        try {
+            LocalDateTime instant = at == null ? LocalDateTime.now() : LocalDateTime.parse(at);
+            PriceListResponse prices = productService.getPriceListAt(instant);
+            return Response.ok(prices).build();
+        } catch (DateTimeParseException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", "Invalid date, expected ISO format: " + at))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando la lista de precios", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/{productId}/movements")
+    public Response getStockMovements(@PathParam("productId") Long productId,
+                                      @QueryParam("from") String from,
+                                      @QueryParam("to") String to,
+                                      @QueryParam("limit") @DefaultValue("100") int limit) {
+        try {
+            LocalDateTime start = from == null ? LocalDateTime.now().minusDays(30) : LocalDateTime.parse(from);
+            LocalDateTime end = to == null ? LocalDateTime.now() : LocalDateTime.parse(to);
+            List<StockMovementDTO> movements = productService.getStockMovements(productId, start, end, limit);
+            return Response.ok(movements).build();
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando movimientos del producto {}", productId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/stock/metrics")
+    public Response getStockMutationStats() {
+        try {
+            StockMutationStatsResponse stats = productService.getStockMutationStats();
+            return Response.ok(stats).build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando métricas de stock", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/cache/stats")
+    public Response getCatalogCacheStats() {
+        try {
+            CatalogCacheStatsResponse stats = productService.getCatalogCacheStats();
+            return Response.ok(stats).build();
+        } catch (Exception e) {
+            logger.error("Error inesperado consultando estadísticas de la caché del catálogo", e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", e.getMessage()))
                     .build();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package org.blackequity.infrastructure.controller;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.blackequity.application.service.SaleService;
+import org.blackequity.domain.exception.DuplicateSaleException;
+import org.blackequity.domain.exception.InsufficientStockException;
+import org.blackequity.domain.exception.ProductNotFoundException;
+import org.blackequity.domain.exception.ReservationNotFoundException;
+import org.blackequity.printer.domain.TicketRequest;
+import org.blackequity.shared.dto.SaleResponse;
+
+import java.util.Map;
+
+@Path("/api/sales")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class SaleController {
+
+    @Inject
+    SaleService saleService;
+
+    @POST
+    public Response bookSale(TicketRequest ticket, @QueryParam("print") @DefaultValue("true") boolean print) {
+        try {
+            SaleResponse sale = saleService.bookSale(ticket, print);
+            return Response.status(Response.Status.CREATED).entity(sale).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (ProductNotFoundException | ReservationNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (DuplicateSaleException | InsufficientStockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+}
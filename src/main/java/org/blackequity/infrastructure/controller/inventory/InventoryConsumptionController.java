@@ -6,8 +6,10 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.blackequity.application.service.inventory.InventoryConsumptionService;
 import org.blackequity.domain.dto.inventory.InventoryConsumption;
+import org.blackequity.domain.exception.InsufficientStockException;
 
 import java.util.List;
+import java.util.Map;
 
 @Path("/inventory-consumptions")
 @Produces(MediaType.APPLICATION_JSON)
@@ -19,8 +21,14 @@ public class InventoryConsumptionController {
 
     @POST
     public Response create(InventoryConsumption inventoryConsumption) {
-        InventoryConsumption created = inventoryConsumptionService.create(inventoryConsumption);
-        return Response.status(Response.Status.CREATED).entity(created).build();
+        try {
+            InventoryConsumption created = inventoryConsumptionService.create(inventoryConsumption);
+            return Response.status(Response.Status.CREATED).entity(created).build();
+        } catch (InsufficientStockException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
     }
 
     @GET
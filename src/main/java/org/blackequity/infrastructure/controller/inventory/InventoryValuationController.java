@@ -0,0 +1,30 @@
+package org.blackequity.infrastructure.controller.inventory;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.blackequity.application.service.inventory.InventoryValuationService;
+import org.blackequity.shared.dto.InventoryValuationResponse;
+
+import java.util.Map;
+
+@Path("/inventory-valuation")
+@Produces(MediaType.APPLICATION_JSON)
+public class InventoryValuationController {
+
+    @Inject
+    InventoryValuationService inventoryValuationService;
+
+    @GET
+    public Response getValuation(@QueryParam("refresh") boolean refresh) {
+        try {
+            InventoryValuationResponse valuation = inventoryValuationService.getValuation(refresh);
+            return Response.ok(valuation).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+}
@@ -1,24 +1,38 @@
 package org.blackequity.infrastructure.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
 import org.blackequity.domain.dto.AccountReceivable;
 import org.blackequity.domain.dto.DebtTransaction;
 import org.blackequity.domain.enums.AccountStatus;
+import org.blackequity.domain.enums.PaymentMethod;
+import org.blackequity.domain.enums.TransactionType;
+import org.blackequity.domain.event.AccountReceivableChangedEvent;
 import org.blackequity.domain.model.AccountReceivableEntity;
 import org.blackequity.domain.model.DebtTransactionEntity;
 import org.blackequity.domain.repository.AccountReceivable.AccountReceivableRepository;
+import org.blackequity.shared.dto.AccountSearchResult;
+import org.blackequity.shared.dto.AccountStatsResponse;
 import org.blackequity.shared.mapper.AccountReceivableEntityMapper;
 import org.slf4j.Logger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
@@ -26,12 +40,21 @@ public class AccountReceivableRepositoryImpl implements AccountReceivableReposit
 
     private static final Logger logger = LoggerFactory.getLogger(AccountReceivableRepositoryImpl.class);
 
+    // Un índice trigram solo acota un LIKE '%x%' con al menos un trigrama completo en el patrón
+    private static final int MIN_CONTAINS_LENGTH = 3;
+
     @Inject
     AccountReceivableEntityMapper mapper;
 
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    Event<AccountReceivableChangedEvent> accountChangedEvent;
+
+    @ConfigProperty(name = "receivables.transactions.stream-page-size", defaultValue = "500")
+    int transactionsPageSize;
+
     @Override
     public List<AccountReceivable> findAllAccounts() {
         logger.debug("Obteniendo todas las cuentas por cobrar");
@@ -56,6 +79,20 @@ public class AccountReceivableRepositoryImpl implements AccountReceivableReposit
                 .map(mapper::toDomain);
     }
 
+    // SELECT ... FOR UPDATE: toda escritura de la cabecera de una cuenta se serializa en la BD
+    @Override
+    public Optional<AccountReceivable> findByCustomerDocumentForUpdate(String customerDocument) {
+        logger.debug("Bloqueando cuenta por documento: {}", customerDocument);
+        return entityManager.createQuery(
+                        "SELECT a FROM AccountReceivableEntity a WHERE a.customerDocument = :document",
+                        AccountReceivableEntity.class)
+                .setParameter("document", customerDocument)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultStream()
+                .findFirst()
+                .map(mapper::toDomain);
+    }
+
     @Override
     public List<AccountReceivable> findByStatus(AccountStatus status) {
         logger.debug("Buscando cuentas con estado: {}", status);
@@ -108,41 +145,52 @@ public class AccountReceivableRepositoryImpl implements AccountReceivableReposit
 
         AccountReceivableEntity newEntity = mapper.toEntity(account);
         persist(newEntity);
+        accountChangedEvent.fire(new AccountReceivableChangedEvent(newEntity.getId()));
 
         logger.info("Cuenta creada para cliente: {}", account.getCustomerName());
         return mapper.toDomain(newEntity);
     }
 
+    /**
+     * Persistencia incremental: un UPDATE de la cabecera y un INSERT por cada transacción nueva.
+     * El historial existente no se lee ni se reescribe, así el coste no depende de su tamaño.
+     * La cabecera se escribe entera: la cuenta debe haberse leído con findByCustomerDocumentForUpdate.
+     */
     @Override
     @Transactional
     public AccountReceivable update(AccountReceivable account) {
         logger.debug("🔄 Actualizando cuenta: {}", account.getId());
 
-        AccountReceivableEntity existingEntity = find("id", account.getId()).firstResult();
-        if (existingEntity == null) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = entityManager.createQuery(
+                        "UPDATE AccountReceivableEntity a SET a.customerName = :customerName, a.customerPhone = :customerPhone, " +
+                                "a.totalDebt = :totalDebt, a.creditLimit = :creditLimit, a.status = :status, " +
+                                "a.lastTransactionDate = :lastTransactionDate, a.notes = :notes, a.updatedAt = :now " +
+                                "WHERE a.id = :id")
+                .setParameter("customerName", account.getCustomerName())
+                .setParameter("customerPhone", account.getCustomerPhone())
+                .setParameter("totalDebt", account.getTotalDebt())
+                .setParameter("creditLimit", account.getCreditLimit())
+                .setParameter("status", account.getStatus())
+                .setParameter("lastTransactionDate", account.getLastTransactionDate())
+                .setParameter("notes", account.getNotes())
+                .setParameter("now", now)
+                .setParameter("id", account.getId())
+                .executeUpdate();
+        if (updated == 0) {
             throw new IllegalArgumentException("Account not found: " + account.getId());
         }
 
-        mapper.updateEntity(existingEntity, account);
-
-        // Actualizar transacciones si es necesario
-        updateTransactions(account);
+        // Solo las transacciones nuevas; los INSERT salen en batch JDBC al hacer flush
+        for (DebtTransaction transaction : account.pendingTransactions()) {
+            entityManager.persist(mapper.transactionToEntity(transaction, account.getId()));
+        }
+        account.markTransactionsPersisted();
+        account.setUpdatedAt(now);
+        accountChangedEvent.fire(new AccountReceivableChangedEvent(account.getId()));
 
         logger.info("Cuenta actualizada: {}", account.getCustomerName());
-        return mapper.toDomain(existingEntity);
-    }
-
-    private void updateTransactions(AccountReceivable account) {
-        // Eliminar transacciones existentes y crear nuevas
-        entityManager.createQuery("DELETE FROM DebtTransactionEntity t WHERE t.accountId = :accountId")
-                .setParameter("accountId", account.getId())
-                .executeUpdate();
-
-        // Insertar transacciones actuales
-        for (DebtTransaction transaction : account.getTransactions()) {
-            DebtTransactionEntity transactionEntity = mapper.transactionToEntity(transaction, account.getId());
-            entityManager.persist(transactionEntity);
-        }
+        return account;
     }
 
     @Override
@@ -159,6 +207,7 @@ public class AccountReceivableRepositoryImpl implements AccountReceivableReposit
         if (deletedCount == 0) {
             throw new IllegalArgumentException("Account not found: " + id);
         }
+        accountChangedEvent.fire(new AccountReceivableChangedEvent(id));
 
         logger.info("Cuenta {} eliminada", id);
     }
@@ -168,6 +217,57 @@ public class AccountReceivableRepositoryImpl implements AccountReceivableReposit
         return find("customerDocument", customerDocument).count() > 0;
     }
 
+    /**
+     * Búsqueda de clientes en la BD (LIKE apoyado en los índices trigram). Orden: documento exacto,
+     * prefijo de documento, prefijo del nombre, prefijo de una palabra del nombre y el resto.
+     * Con menos de MIN_CONTAINS_LENGTH caracteres solo se busca por prefijo de documento: un
+     * "contiene" de dos letras recorrería la tabla entera.
+     */
+    @Override
+    public List<AccountSearchResult> searchAccounts(String term, int limit) {
+        String document = escapeLike(term.trim());
+        String name = escapeLike(term.trim().toLowerCase(Locale.ROOT));
+        boolean contains = term.trim().length() >= MIN_CONTAINS_LENGTH;
+        String where = contains
+                ? "WHERE lower(a.customer_name) LIKE :contains ESCAPE '\\' OR a.customer_document LIKE :documentPrefix ESCAPE '\\' "
+                : "WHERE a.customer_document LIKE :documentPrefix ESCAPE '\\' ";
+
+        Query query = entityManager.createNativeQuery(
+                        "SELECT a.id, a.customer_name, a.customer_document, a.customer_phone, a.total_debt, a.credit_limit, a.status " +
+                                "FROM accounts_receivable a " +
+                                where +
+                                "ORDER BY CASE " +
+                                "WHEN a.customer_document = :document THEN 0 " +
+                                "WHEN a.customer_document LIKE :documentPrefix ESCAPE '\\' THEN 1 " +
+                                "WHEN lower(a.customer_name) LIKE :namePrefix ESCAPE '\\' THEN 2 " +
+                                "WHEN lower(a.customer_name) LIKE :wordPrefix ESCAPE '\\' THEN 3 " +
+                                "ELSE 4 END, length(a.customer_name), a.customer_name " +
+                                "LIMIT :limit")
+                .setParameter("documentPrefix", document + "%")
+                .setParameter("document", term.trim())
+                .setParameter("namePrefix", name + "%")
+                .setParameter("wordPrefix", "% " + name + "%")
+                .setParameter("limit", limit);
+        if (contains) {
+            query.setParameter("contains", "%" + name + "%");
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+
+        return rows.stream()
+                .map(row -> {
+                    BigDecimal totalDebt = (BigDecimal) row[4];
+                    return new AccountSearchResult((String) row[0], (String) row[1], (String) row[2], (String) row[3],
+                            totalDebt, ((BigDecimal) row[5]).subtract(totalDebt), (String) row[6]);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     @Override
     public List<DebtTransaction> findTransactionsByAccountId(String accountId) {
         logger.debug("Buscando transacciones de cuenta: {}", accountId);
@@ -199,6 +299,84 @@ public class AccountReceivableRepositoryImpl implements AccountReceivableReposit
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Página de movimientos de una cuenta en orden (transactionDate, id) descendente. El cursor es
+     * la última fila devuelta y el filtro de fechas va en el WHERE, así se recorre el índice
+     * (account_id, transaction_date, id) sin leer el resto del historial.
+     */
+    @Override
+    public List<DebtTransaction> findTransactionsPage(String accountId, LocalDate startDate, LocalDate endDate,
+                                                      LocalDate afterDate, String afterId, int limit) {
+        String keyset = afterDate == null ? ""
+                : " AND (t.transactionDate < :afterDate OR (t.transactionDate = :afterDate AND t.id < :afterId))";
+        TypedQuery<Object[]> query = transactionsQuery(accountId, startDate, endDate, keyset);
+        if (afterDate != null) {
+            query.setParameter("afterDate", afterDate).setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(this::toTransaction)
+                .collect(Collectors.toList());
+    }
+
+    // Página a página con el mismo keyset que findTransactionsPage; cada página en una transacción corta
+    @Override
+    public void streamTransactions(String accountId, LocalDate startDate, LocalDate endDate,
+                                   Consumer<DebtTransaction> consumer) {
+        LocalDate afterDate = null;
+        String afterId = null;
+        List<DebtTransaction> page;
+        do {
+            LocalDate cursorDate = afterDate;
+            String cursorId = afterId;
+            page = QuarkusTransaction.requiringNew().call(() ->
+                    findTransactionsPage(accountId, startDate, endDate, cursorDate, cursorId, transactionsPageSize));
+            page.forEach(consumer);
+            if (!page.isEmpty()) {
+                DebtTransaction last = page.get(page.size() - 1);
+                afterDate = last.getTransactionDate();
+                afterId = last.getId();
+            }
+        } while (page.size() == transactionsPageSize);
+    }
+
+    private TypedQuery<Object[]> transactionsQuery(String accountId, LocalDate startDate, LocalDate endDate, String keyset) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT t.id, t.type, t.amount, t.description, t.reference, t.paymentMethod, t.transactionDate, t.createdAt " +
+                        "FROM DebtTransactionEntity t WHERE t.accountId = :accountId");
+        if (startDate != null) {
+            jpql.append(" AND t.transactionDate >= :startDate");
+        }
+        if (endDate != null) {
+            jpql.append(" AND t.transactionDate <= :endDate");
+        }
+        jpql.append(keyset).append(" ORDER BY t.transactionDate DESC, t.id DESC");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setParameter("accountId", accountId);
+        if (startDate != null) {
+            query.setParameter("startDate", startDate);
+        }
+        if (endDate != null) {
+            query.setParameter("endDate", endDate);
+        }
+        return query;
+    }
+
+    private DebtTransaction toTransaction(Object[] row) {
+        DebtTransaction transaction = new DebtTransaction();
+        transaction.setId((String) row[0]);
+        transaction.setType((TransactionType) row[1]);
+        transaction.setAmount((BigDecimal) row[2]);
+        transaction.setDescription((String) row[3]);
+        transaction.setReference((String) row[4]);
+        transaction.setPaymentMethod((PaymentMethod) row[5]);
+        transaction.setTransactionDate((LocalDate) row[6]);
+        transaction.setCreatedAt((LocalDateTime) row[7]);
+        return transaction;
+    }
+
     @Override
     @Transactional
     public DebtTransaction saveTransaction(String accountId, DebtTransaction transaction) {
@@ -230,4 +408,41 @@ public class AccountReceivableRepositoryImpl implements AccountReceivableReposit
                 .getSingleResult();
         return new BigDecimal(result.toString());
     }
+
+    // Todas las cifras del panel en una sola consulta con agregados filtrados
+    @Override
+    public AccountStatsResponse computeStatistics(LocalDate overdueCutoff) {
+        Object[] row = entityManager.createQuery(
+                        "SELECT COUNT(*), " +
+                                "COUNT(*) FILTER (WHERE a.status = :active), " +
+                                "COUNT(*) FILTER (WHERE a.totalDebt > 0), " +
+                                "COUNT(*) FILTER (WHERE a.status = :suspended), " +
+                                "COALESCE(SUM(a.totalDebt) FILTER (WHERE a.totalDebt > 0), 0), " +
+                                "COALESCE(AVG(a.totalDebt) FILTER (WHERE a.totalDebt > 0), 0), " +
+                                "COALESCE(SUM(a.creditLimit), 0), " +
+                                "COALESCE(SUM(a.creditLimit - a.totalDebt), 0), " +
+                                "COUNT(*) FILTER (WHERE a.totalDebt > 0 AND a.lastTransactionDate <= :cutoff), " +
+                                "COALESCE(SUM(a.totalDebt) FILTER (WHERE a.totalDebt > 0 AND a.lastTransactionDate <= :cutoff), 0) " +
+                                "FROM AccountReceivableEntity a", Object[].class)
+                .setParameter("active", AccountStatus.ACTIVE)
+                .setParameter("suspended", AccountStatus.SUSPENDED)
+                .setParameter("cutoff", overdueCutoff)
+                .getSingleResult();
+
+        return new AccountStatsResponse(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).longValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).longValue(),
+                decimal(row[4]),
+                decimal(row[5]),
+                decimal(row[6]),
+                decimal(row[7]),
+                ((Number) row[8]).longValue(),
+                decimal(row[9]));
+    }
+
+    private BigDecimal decimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
 }
@@ -5,6 +5,8 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import org.blackequity.domain.model.Category;
 import org.blackequity.domain.repository.product.ICategoryRepository;
+import org.blackequity.shared.dto.CategoryChangeDTO;
+import org.hibernate.jpa.HibernateHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,8 +27,34 @@ public class CategoryRepositoryImpl implements ICategoryRepository {
         return Optional.ofNullable(entityManager.find(Category.class, id));
     }
 
+    // Proxy sin SELECT: para asociar productos a una categoría ya validada
+    @Override
+    public Category getReference(Long id) {
+        return entityManager.getReference(Category.class, id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return entityManager.createQuery("SELECT COUNT(c) FROM Category c WHERE c.id = :id", Long.class)
+                .setParameter("id", id)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getSingleResult() > 0;
+    }
+
     @Override
     public List<Category> findAll() {
-        return entityManager.createQuery("SELECT c FROM Category c", Category.class).getResultList();
+        return entityManager.createQuery("SELECT c FROM Category c", Category.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+
+    @Override
+    public List<CategoryChangeDTO> findChangedSince(long since, int limit) {
+        return entityManager.createQuery(
+                        "SELECT new org.blackequity.shared.dto.CategoryChangeDTO(c.id, c.name, c.changeVersion) " +
+                                "FROM Category c WHERE c.changeVersion > :since ORDER BY c.changeVersion", CategoryChangeDTO.class)
+                .setParameter("since", since)
+                .setMaxResults(limit)
+                .getResultList();
     }
 }
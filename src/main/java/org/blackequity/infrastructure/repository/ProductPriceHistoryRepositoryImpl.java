@@ -0,0 +1,61 @@
+package org.blackequity.infrastructure.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.model.ProductPriceHistoryEntity;
+import org.blackequity.domain.repository.price.IProductPriceHistoryRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ApplicationScoped
+public class ProductPriceHistoryRepositoryImpl implements IProductPriceHistoryRepository {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void openInterval(Long productId, BigDecimal price, LocalDateTime validFrom) {
+        entityManager.persist(ProductPriceHistoryEntity.builder()
+                .productId(productId)
+                .price(price)
+                .validFrom(validFrom)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void closeCurrent(Long productId, LocalDateTime validTo) {
+        entityManager.createQuery("UPDATE ProductPriceHistoryEntity h SET h.validTo = :validTo " +
+                        "WHERE h.productId = :productId AND h.validTo IS NULL")
+                .setParameter("validTo", validTo)
+                .setParameter("productId", productId)
+                .executeUpdate();
+    }
+
+    /**
+     * Crea el intervalo inicial de los productos anteriores al historial con su precio actual.
+     */
+    @Override
+    @Transactional
+    public int backfillMissing() {
+        return entityManager.createQuery("INSERT INTO ProductPriceHistoryEntity (productId, price, validFrom) " +
+                        "SELECT p.id, p.price, COALESCE(p.createdAt, :beginning) FROM Product p " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM ProductPriceHistoryEntity h WHERE h.productId = p.id)")
+                .setParameter("beginning", BEGINNING)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<ProductPriceHistoryEntity> findAll() {
+        return entityManager.createQuery("SELECT h FROM ProductPriceHistoryEntity h ORDER BY h.productId, h.validFrom",
+                        ProductPriceHistoryEntity.class)
+                .getResultList();
+    }
+}
@@ -1,14 +1,46 @@
 package org.blackequity.infrastructure.repository;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import org.blackequity.domain.dto.inventory.CategoryValuation;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.dto.stock.StockMutationStatus;
+import org.blackequity.domain.dto.stock.StockTakeDiff;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.domain.event.PriceChangedEvent;
+import org.blackequity.domain.event.StockChangedEvent;
+import org.blackequity.domain.exception.InsufficientStockException;
+import org.blackequity.domain.exception.ProductNotFoundException;
 import org.blackequity.domain.model.Product;
+import org.blackequity.domain.model.stock.StockJournalCheckpointEntity;
+import org.blackequity.domain.repository.price.IProductPriceHistoryRepository;
 import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.domain.repository.stock.IStockMovementRepository;
+import org.blackequity.infrastructure.repository.stock.StockMutationEngine;
+import org.blackequity.infrastructure.repository.stock.StockWriteBehindBuffer;
+import org.blackequity.shared.dto.ProductChangeDTO;
+import org.blackequity.shared.dto.ProductDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class ProductRepositoryImpl implements IProductRepository {
@@ -16,6 +48,30 @@ public class ProductRepositoryImpl implements IProductRepository {
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    StockMutationEngine stockMutationEngine;
+
+    @Inject
+    IStockMovementRepository stockMovementRepository;
+
+    @Inject
+    StockWriteBehindBuffer writeBehindBuffer;
+
+    @Inject
+    IProductPriceHistoryRepository priceHistoryRepository;
+
+    @Inject
+    Event<StockChangedEvent> stockChangedEvent;
+
+    @Inject
+    Event<PriceChangedEvent> priceChangedEvent;
+
+    @ConfigProperty(name = "product.stream.page-size", defaultValue = "500")
+    int streamPageSize;
+
+    @ConfigProperty(name = "stock.mutation.reject-negative", defaultValue = "false")
+    boolean rejectNegative;
+
     @Override
     public void save(Product product) {
         entityManager.persist(product);
@@ -33,13 +89,236 @@ public class ProductRepositoryImpl implements IProductRepository {
                 .getResultList();
     }
 
+    @Override
+    public List<ProductDTO> findDtosByCategoryId(Long categoryId) {
+        return entityManager.createQuery(
+                        "SELECT new org.blackequity.shared.dto.ProductDTO(p.id, p.name, p.price, p.stock, p.minStock) " +
+                                "FROM Product p WHERE p.category.id = :categoryId ORDER BY p.id", ProductDTO.class)
+                .setParameter("categoryId", categoryId)
+                .getResultList();
+    }
+
+    @Override
+    public List<ProductDTO> findDtosByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT new org.blackequity.shared.dto.ProductDTO(p.id, p.name, p.price, p.stock, p.minStock) " +
+                                "FROM Product p WHERE p.id IN :ids", ProductDTO.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<ProductDTO> findDtoByBarcode(String barcode) {
+        return entityManager.createQuery(
+                        "SELECT new org.blackequity.shared.dto.ProductDTO(p.id, p.name, p.price, p.stock, p.minStock) " +
+                                "FROM Product p WHERE p.barcode = :barcode", ProductDTO.class)
+                .setParameter("barcode", barcode)
+                .getResultStream()
+                .findFirst();
+    }
+
+    @Override
+    public Set<String> findExistingBarcodes(Collection<String> barcodes) {
+        if (barcodes.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(entityManager.createQuery(
+                        "SELECT p.barcode FROM Product p WHERE p.barcode IN :barcodes", String.class)
+                .setParameter("barcodes", barcodes)
+                .getResultList());
+    }
+
+    @Override
+    public List<ProductDTO> findPage(Long afterId, int limit) {
+        return entityManager.createQuery(
+                        "SELECT new org.blackequity.shared.dto.ProductDTO(p.id, p.name, p.price, p.stock, p.minStock) " +
+                                "FROM Product p WHERE p.id > :afterId ORDER BY p.id", ProductDTO.class)
+                .setParameter("afterId", afterId == null ? 0L : afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<ProductChangeDTO> findChangedSince(long since, int limit) {
+        return entityManager.createQuery(
+                        "SELECT new org.blackequity.shared.dto.ProductChangeDTO(p.id, p.name, p.barcode, p.price, p.stock, " +
+                                "p.minStock, p.category.id, p.changeVersion) " +
+                                "FROM Product p WHERE p.changeVersion > :since ORDER BY p.changeVersion", ProductChangeDTO.class)
+                .setParameter("since", since)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Recorre el catálogo página a página por id, cada página en su propia transacción corta. La
+     * conexión vuelve al pool mientras se escribe la respuesta, así un cliente lento no retiene una
+     * transacción ni un cursor abierto durante toda la descarga.
+     */
+    @Override
+    public void streamAll(Consumer<ProductDTO> consumer) {
+        Long afterId = 0L;
+        List<ProductDTO> page;
+        do {
+            Long cursor = afterId;
+            page = QuarkusTransaction.requiringNew().call(() -> findPage(cursor, streamPageSize));
+            page.forEach(consumer);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == streamPageSize);
+    }
+
+    /**
+     * Aplica el delta sin mirar lo reservado: quien descuenta sin reserva debe pasar antes por
+     * StockReservationManager.holdUnreserved; la confirmación de una reserva llega aquí directamente.
+     */
     @Override
     @Transactional
-    public void updateStock(Long productId, BigDecimal quantity) {
-        Product product = entityManager.find(Product.class, productId);
-        if (product != null) {
-            product.setStock(product.getStock().add(quantity));
-            entityManager.merge(product);
+    public StockMutationResult updateStock(Long productId, BigDecimal quantity, StockMovementType type, String reference) {
+        StockMutationResult result = stockMutationEngine.apply(productId, quantity, rejectNegative);
+        if (result.getStatus() == StockMutationStatus.REJECTED_NEGATIVE) {
+            throw new InsufficientStockException("Insufficient stock for product " + productId
+                    + ": available " + result.getStock() + ", requested " + quantity.negate());
+        }
+        if (result.isApplied()) {
+            stockMovementRepository.record(List.of(result), Map.of(productId, quantity), type, reference);
+            stockChangedEvent.fire(new StockChangedEvent(productId, quantity, result.getStock(), result.getVersion()));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void updatePrice(Long productId, BigDecimal price) {
+        Product product = entityManager.find(Product.class, productId, LockModeType.PESSIMISTIC_WRITE);
+        if (product == null) {
+            throw new ProductNotFoundException("Product not found: " + productId);
+        }
+        BigDecimal oldPrice = product.getPrice();
+        if (oldPrice.compareTo(price) == 0) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        product.setPrice(price);
+        entityManager.flush();
+        priceHistoryRepository.closeCurrent(productId, now);
+        priceHistoryRepository.openInterval(productId, price, now);
+        priceChangedEvent.fire(new PriceChangedEvent(productId, oldPrice, price, now, product.getVersion(),
+                product.getStock()));
+    }
+
+    /**
+     * Devuelve el stock resultante de cada producto de deltas, también de los que netean a cero: esos
+     * no se tocan ni generan movimiento, y se informa su stock actual (la fila sigue bloqueada).
+     */
+    @Override
+    @Transactional
+    public Map<Long, BigDecimal> applyStockDeltas(Map<Long, BigDecimal> deltas, StockMovementType type, String reference) {
+        List<StockMutationResult> results = stockMutationEngine.applyBatch(new TreeMap<>(deltas), rejectNegative);
+        stockMovementRepository.record(results, deltas, type, reference);
+
+        Map<Long, BigDecimal> stocks = new LinkedHashMap<>();
+        for (StockMutationResult result : results) {
+            stockChangedEvent.fire(new StockChangedEvent(result.getProductId(), deltas.get(result.getProductId()),
+                    result.getStock(), result.getVersion()));
+            stocks.put(result.getProductId(), result.getStock());
+        }
+        if (stocks.size() < deltas.size()) {
+            List<Long> unchanged = deltas.keySet().stream().filter(id -> !stocks.containsKey(id)).toList();
+            stocks.putAll(findStocks(unchanged));
+        }
+        return stocks;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> findStocks(Collection<Long> ids) {
+        Map<Long, BigDecimal> stocks = new HashMap<>();
+        if (ids.isEmpty()) {
+            return stocks;
+        }
+        entityManager.createQuery("SELECT p.id, p.stock FROM Product p WHERE p.id IN :ids", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(row -> stocks.put((Long) row[0], (BigDecimal) row[1]));
+        return stocks;
+    }
+
+    // Un único GROUP BY; las categorías sin productos aparecen con ceros. Bajo stock según Product.LOW_STOCK_JPQL
+    @Override
+    public List<CategoryValuation> findValuationByCategory() {
+        return entityManager.createQuery(
+                        "SELECT c.id, c.name, COUNT(p.id), COALESCE(SUM(p.stock), 0), COALESCE(SUM(p.stock * p.price), 0), " +
+                                "COALESCE(SUM(CASE WHEN " + Product.LOW_STOCK_JPQL + " THEN 1 ELSE 0 END), 0) " +
+                                "FROM Category c LEFT JOIN c.products p GROUP BY c.id, c.name ORDER BY c.name", Object[].class)
+                .getResultList()
+                .stream()
+                .map(row -> new CategoryValuation((Long) row[0], (String) row[1], ((Number) row[2]).longValue(),
+                        (BigDecimal) row[3], (BigDecimal) row[4], ((Number) row[5]).longValue()))
+                .toList();
+    }
+
+    /**
+     * Ajusta cada producto a la cantidad contada. El delta se calcula sobre el stock ya bloqueado,
+     * así las ventas concurrentes al conteo no se pierden ni se duplican.
+     */
+    @Override
+    @Transactional
+    public List<StockTakeDiff> reconcileStock(SortedMap<Long, BigDecimal> counted, String reference) {
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        List<StockMutationResult> results = stockMutationEngine.applyBatch(counted.keySet(), product -> {
+            expected.put(product.getId(), product.getStock());
+            return counted.get(product.getId()).subtract(product.getStock());
+        }, false);
+
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        List<StockTakeDiff> diffs = new ArrayList<>(results.size());
+        for (StockMutationResult result : results) {
+            Long productId = result.getProductId();
+            BigDecimal delta = counted.get(productId).subtract(expected.get(productId));
+            deltas.put(productId, delta);
+            diffs.add(new StockTakeDiff(productId, expected.get(productId), counted.get(productId), delta));
+        }
+        stockMovementRepository.record(results, deltas, StockMovementType.STOCK_TAKE, reference);
+        for (StockMutationResult result : results) {
+            stockChangedEvent.fire(new StockChangedEvent(result.getProductId(), deltas.get(result.getProductId()),
+                    result.getStock(), result.getVersion()));
+        }
+        return diffs;
+    }
+
+    @Override
+    public boolean canDeferStockDeltas(Map<Long, BigDecimal> deltas, StockMovementType type) {
+        return writeBehindBuffer.accepts(deltas, type);
+    }
+
+    @Override
+    public boolean deferStockDeltas(Map<Long, BigDecimal> deltas, StockMovementType type) {
+        return writeBehindBuffer.offer(deltas, type);
+    }
+
+    @Override
+    public boolean flushDeferredStockDeltas() {
+        return writeBehindBuffer.flush();
+    }
+
+    /**
+     * Aplica un segmento del journal de write-behind; si ya consta como aplicado no hace nada.
+     * Cada segmento confirma en su propia transacción, aunque se llame desde el arranque.
+     */
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public Map<Long, BigDecimal> applyJournalSegment(long segment, Map<Long, BigDecimal> deltas) {
+        if (entityManager.find(StockJournalCheckpointEntity.class, segment) != null) {
+            return Map.of();
         }
+        Map<Long, BigDecimal> stocks = deltas.isEmpty()
+                ? Map.of()
+                : applyStockDeltas(deltas, StockMovementType.SALE, "write-behind:" + segment);
+        entityManager.persist(new StockJournalCheckpointEntity(segment, LocalDateTime.now()));
+        return stocks;
     }
-}
\ No newline at end of file
+}
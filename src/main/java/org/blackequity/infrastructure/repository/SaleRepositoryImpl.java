@@ -0,0 +1,50 @@
+package org.blackequity.infrastructure.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.blackequity.domain.exception.DuplicateSaleException;
+import org.blackequity.domain.model.sale.SaleEntity;
+import org.blackequity.domain.repository.sale.ISaleRepository;
+import org.hibernate.exception.ConstraintViolationException;
+
+@ApplicationScoped
+public class SaleRepositoryImpl implements ISaleRepository {
+
+    private static final String UK_TICKET_NUMBER = "uk_sale_ticket_number";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Override
+    public void save(SaleEntity sale) {
+        entityManager.persist(sale);
+        // Un ticket duplicado debe fallar aquí, antes de tocar stock o el journal de write-behind
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            // Dos envíos concurrentes del mismo ticket pasan ambos existsByTicketNumber; decide el índice único
+            if (isTicketNumberViolation(e)) {
+                throw new DuplicateSaleException("Sale already registered for ticket " + sale.getTicketNumber());
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTicketNumberViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return UK_TICKET_NUMBER.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean existsByTicketNumber(String ticketNumber) {
+        return entityManager.createQuery("SELECT COUNT(s) FROM SaleEntity s WHERE s.ticketNumber = :ticketNumber", Long.class)
+                .setParameter("ticketNumber", ticketNumber)
+                .getSingleResult() > 0;
+    }
+}
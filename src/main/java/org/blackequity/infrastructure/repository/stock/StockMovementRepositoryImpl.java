@@ -0,0 +1,158 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.dto.stock.StockAsOf;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.domain.model.stock.StockMovementEntity;
+import org.blackequity.domain.model.stock.StockSnapshotEntity;
+import org.blackequity.domain.repository.stock.IStockMovementRepository;
+import org.blackequity.shared.dto.StockMovementDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ledger append-only de movimientos de stock con snapshots periódicos por producto.
+ *
+ * Cuando la versión del producto supera en stock.ledger.snapshot-interval a la del último snapshot
+ * se guarda otro, así que "stock a la fecha T" es el snapshot más cercano anterior a T más una cola
+ * acotada de movimientos. La distancia se lee de la BD en la misma transacción: no depende de
+ * contadores en memoria que un rollback o un reinicio dejarían desfasados.
+ */
+@ApplicationScoped
+public class StockMovementRepositoryImpl implements IStockMovementRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementRepositoryImpl.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "stock.ledger.snapshot-interval", defaultValue = "100")
+    int snapshotInterval;
+
+    @Override
+    @Transactional
+    public void recordInitial(Long productId, BigDecimal stock, Long productVersion) {
+        entityManager.persist(snapshot(productId, productVersion, stock, LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
+    public void record(List<StockMutationResult> results, Map<Long, BigDecimal> deltas,
+                       StockMovementType type, String reference) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Long> lastSnapshots = findLastSnapshotVersions(results);
+
+        for (StockMutationResult result : results) {
+            Long productId = result.getProductId();
+            BigDecimal delta = deltas.get(productId);
+
+            // Productos anteriores al ledger: se fija como base el stock previo a este movimiento
+            Long lastSnapshot = lastSnapshots.get(productId);
+            if (lastSnapshot == null) {
+                lastSnapshot = result.getVersion() - 1;
+                entityManager.persist(snapshot(productId, lastSnapshot, result.getStock().subtract(delta), now));
+            }
+
+            entityManager.persist(StockMovementEntity.builder()
+                    .productId(productId)
+                    .productVersion(result.getVersion())
+                    .quantity(delta)
+                    .type(type)
+                    .reference(reference)
+                    .createdAt(now)
+                    .build());
+
+            // La versión también sube con cambios de precio o nombre: la distancia acota por arriba los movimientos
+            if (result.getVersion() - lastSnapshot >= snapshotInterval) {
+                entityManager.persist(snapshot(productId, result.getVersion(), result.getStock(), now));
+                logger.debug("Snapshot de stock para producto {} en versión {}", productId, result.getVersion());
+            }
+        }
+    }
+
+    // Versión del último snapshot de cada producto; los que no aparecen aún no tienen base en el ledger
+    private Map<Long, Long> findLastSnapshotVersions(List<StockMutationResult> results) {
+        Set<Long> ids = results.stream()
+                .map(StockMutationResult::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Long> versions = new HashMap<>();
+        if (ids.isEmpty()) {
+            return versions;
+        }
+        entityManager.createQuery(
+                        "SELECT s.productId, MAX(s.productVersion) FROM StockSnapshotEntity s " +
+                                "WHERE s.productId IN :ids GROUP BY s.productId", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .forEach(row -> versions.put((Long) row[0], (Long) row[1]));
+        return versions;
+    }
+
+    @Override
+    public Optional<StockAsOf> findStockAsOf(Long productId, LocalDateTime at) {
+        Optional<StockSnapshotEntity> snapshot = entityManager.createQuery(
+                        "SELECT s FROM StockSnapshotEntity s WHERE s.productId = :productId AND s.takenAt <= :at " +
+                                "ORDER BY s.productVersion DESC", StockSnapshotEntity.class)
+                .setParameter("productId", productId)
+                .setParameter("at", at)
+                .setMaxResults(1)
+                .getResultStream()
+                .findFirst();
+        if (snapshot.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Object[] tail = entityManager.createQuery(
+                        "SELECT COALESCE(SUM(m.quantity), 0), COUNT(m) FROM StockMovementEntity m " +
+                                "WHERE m.productId = :productId AND m.productVersion > :version AND m.createdAt <= :at",
+                        Object[].class)
+                .setParameter("productId", productId)
+                .setParameter("version", snapshot.get().getProductVersion())
+                .setParameter("at", at)
+                .getSingleResult();
+
+        return Optional.of(new StockAsOf(
+                productId,
+                at,
+                snapshot.get().getStock().add((BigDecimal) tail[0]),
+                snapshot.get().getProductVersion(),
+                (Long) tail[1]));
+    }
+
+    @Override
+    public List<StockMovementDTO> findMovements(Long productId, LocalDateTime from, LocalDateTime to, int limit) {
+        return entityManager.createQuery(
+                        "SELECT new org.blackequity.shared.dto.StockMovementDTO(m.productId, m.productVersion, m.quantity, " +
+                                "m.type, m.reference, m.createdAt) FROM StockMovementEntity m WHERE m.productId = :productId " +
+                                "AND m.createdAt >= :from AND m.createdAt <= :to ORDER BY m.productVersion DESC",
+                        StockMovementDTO.class)
+                .setParameter("productId", productId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private StockSnapshotEntity snapshot(Long productId, Long productVersion, BigDecimal stock, LocalDateTime takenAt) {
+        return StockSnapshotEntity.builder()
+                .productId(productId)
+                .productVersion(productVersion)
+                .stock(stock)
+                .takenAt(takenAt)
+                .build();
+    }
+}
@@ -0,0 +1,262 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.dto.stock.StockMutationStatus;
+import org.blackequity.domain.exception.InsufficientStockException;
+import org.blackequity.domain.exception.ProductNotFoundException;
+import org.blackequity.domain.model.ChangeVersion;
+import org.blackequity.domain.model.Product;
+import org.blackequity.shared.dto.StockMutationStatsResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica deltas de stock sin read-modify-write en memoria.
+ *
+ * Estrategia "atomic": un único UPDATE condicional (stock = stock + delta), serializado por el
+ * lock de fila de Postgres. Estrategia "optimistic": lectura escalar + UPDATE condicionado a la
+ * versión, reintentando dentro de la misma transacción hasta stock.mutation.max-retries.
+ *
+ * En modo atomic no hay conflictos que contar: la contención se mide como espera en el UPDATE (el
+ * lock de fila). Un UPDATE que tarda más de stock.mutation.contention-threshold-ms cuenta como
+ * contendido y se atribuye al producto en el mismo ranking que los conflictos optimistas.
+ *
+ * Los UPDATE de una fila van en SQL nativo sin query spaces: un UPDATE JPQL invalidaría la región
+ * completa de Product en la caché de segundo nivel, así que aquí solo se desaloja el producto tocado.
+ */
+@ApplicationScoped
+public class StockMutationEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockMutationEngine.class);
+
+    private static final String STRATEGY_OPTIMISTIC = "optimistic";
+    private static final int TOP_CONTENDED_PRODUCTS = 20;
+
+    @Inject
+    EntityManager entityManager;
+
+    @ConfigProperty(name = "stock.mutation.strategy", defaultValue = "atomic")
+    String strategy;
+
+    @ConfigProperty(name = "stock.mutation.max-retries", defaultValue = "5")
+    int maxRetries;
+
+    @ConfigProperty(name = "stock.mutation.contention-threshold-ms", defaultValue = "5")
+    long contentionThresholdMillis;
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder rejectedNegative = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder contendedUpdates = new LongAdder();
+    private final LongAdder updateWaitNanos = new LongAdder();
+    private final Map<Long, LongAdder> conflictsByProduct = new ConcurrentHashMap<>();
+
+    @Transactional
+    public StockMutationResult apply(Long productId, BigDecimal delta, boolean rejectNegative) {
+        StockMutationResult result = STRATEGY_OPTIMISTIC.equalsIgnoreCase(strategy)
+                ? applyOptimistic(productId, delta, rejectNegative)
+                : applyAtomic(productId, delta, rejectNegative);
+        record(result);
+        return result;
+    }
+
+    /**
+     * Aplica un lote de deltas en una sola transacción: un SELECT ... FOR UPDATE ordenado por id
+     * (mismo orden de bloqueo en todas las transacciones, sin deadlocks) y un flush que Hibernate
+     * envía como batch JDBC de UPDATEs.
+     */
+    @Transactional
+    public List<StockMutationResult> applyBatch(SortedMap<Long, BigDecimal> deltas, boolean rejectNegative) {
+        return applyBatch(deltas.keySet(), product -> deltas.get(product.getId()), rejectNegative);
+    }
+
+    /**
+     * Igual que applyBatch, pero el delta de cada producto se calcula sobre su stock ya bloqueado
+     * (p. ej. conteo físico - stock). Los productos con delta cero no se tocan ni se devuelven.
+     */
+    @Transactional
+    public List<StockMutationResult> applyBatch(Collection<Long> productIds, Function<Product, BigDecimal> deltaOf,
+                                                boolean rejectNegative) {
+        List<Product> products = entityManager.createQuery(
+                        "SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id", Product.class)
+                .setParameter("ids", productIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+
+        if (products.size() != productIds.size()) {
+            Set<Long> found = products.stream().map(Product::getId).collect(Collectors.toSet());
+            List<Long> missing = productIds.stream()
+                    .filter(id -> !found.contains(id))
+                    .toList();
+            notFound.add(missing.size());
+            throw new ProductNotFoundException("Products not found: " + missing);
+        }
+
+        List<Product> changed = new ArrayList<>(products.size());
+        for (Product product : products) {
+            BigDecimal delta = deltaOf.apply(product);
+            if (delta.signum() == 0) {
+                continue;
+            }
+            BigDecimal next = product.getStock().add(delta);
+            if (rejectNegative && next.signum() < 0) {
+                rejectedNegative.increment();
+                throw new InsufficientStockException("Insufficient stock for product " + product.getId()
+                        + ": available " + product.getStock() + ", requested " + delta.negate());
+            }
+            product.setStock(next);
+            changed.add(product);
+        }
+
+        // El flush incrementa @Version en cada entidad, que se devuelve para ordenar los eventos
+        entityManager.flush();
+        List<StockMutationResult> results = changed.stream()
+                .map(p -> new StockMutationResult(p.getId(), StockMutationStatus.APPLIED, p.getStock(), p.getVersion(), 0))
+                .toList();
+        applied.add(results.size());
+        logger.info("Lote de {} ajustes de stock aplicado", results.size());
+        return results;
+    }
+
+    private StockMutationResult applyAtomic(Long productId, BigDecimal delta, boolean rejectNegative) {
+        // Los UPDATE directos no pasan por @PreUpdate: la versión de cambio se asigna aquí
+        String sql = "UPDATE product SET stock = stock + :delta, version = version + 1, updated_at = :now, " +
+                "change_version = :changeVersion WHERE id = :id" + (rejectNegative ? " AND stock + :delta >= 0" : "");
+
+        NativeQuery<?> update = productUpdate(sql, productId)
+                .setParameter("delta", delta)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("changeVersion", ChangeVersion.next())
+                .setParameter("id", productId);
+        long started = System.nanoTime();
+        int updated = update.executeUpdate();
+        recordWait(productId, System.nanoTime() - started);
+
+        // Tras el UPDATE la fila queda bloqueada por esta transacción, así que la lectura es exacta
+        Object[] row = readStockAndVersion(productId);
+        if (row == null) {
+            return new StockMutationResult(productId, StockMutationStatus.NOT_FOUND, null, null, 0);
+        }
+        StockMutationStatus status = updated == 1 ? StockMutationStatus.APPLIED : StockMutationStatus.REJECTED_NEGATIVE;
+        return new StockMutationResult(productId, status, (BigDecimal) row[0], (Long) row[1], 0);
+    }
+
+    private StockMutationResult applyOptimistic(Long productId, BigDecimal delta, boolean rejectNegative) {
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            Object[] row = readStockAndVersion(productId);
+            if (row == null) {
+                return new StockMutationResult(productId, StockMutationStatus.NOT_FOUND, null, null, attempt);
+            }
+
+            BigDecimal current = (BigDecimal) row[0];
+            Long version = (Long) row[1];
+            BigDecimal next = current.add(delta);
+            if (rejectNegative && next.signum() < 0) {
+                return new StockMutationResult(productId, StockMutationStatus.REJECTED_NEGATIVE, current, version, attempt);
+            }
+
+            int updated = productUpdate(
+                            "UPDATE product SET stock = :stock, version = version + 1, updated_at = :now, " +
+                                    "change_version = :changeVersion WHERE id = :id AND version = :version", productId)
+                    .setParameter("stock", next)
+                    .setParameter("now", LocalDateTime.now())
+                    .setParameter("changeVersion", ChangeVersion.next())
+                    .setParameter("id", productId)
+                    .setParameter("version", version)
+                    .executeUpdate();
+            if (updated == 1) {
+                return new StockMutationResult(productId, StockMutationStatus.APPLIED, next, version + 1, attempt);
+            }
+
+            conflicts.increment();
+            conflictsByProduct.computeIfAbsent(productId, id -> new LongAdder()).increment();
+            if (attempt < maxRetries) {
+                retries.increment();
+            }
+        }
+
+        exhausted.increment();
+        logger.warn("Conflicto de stock no resuelto para producto {} tras {} reintentos", productId, maxRetries);
+        throw new IllegalStateException("Stock update conflict for product " + productId + " after " + maxRetries + " retries");
+    }
+
+    // Query space vacío: Hibernate no invalida regiones; el producto se desaloja aquí y tras el commit
+    @SuppressWarnings("unchecked")
+    private NativeQuery<?> productUpdate(String sql, Long productId) {
+        entityManager.getEntityManagerFactory().getCache().evict(Product.class, productId);
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("");
+    }
+
+    private Object[] readStockAndVersion(Long productId) {
+        return entityManager.createQuery("SELECT p.stock, p.version FROM Product p WHERE p.id = :id", Object[].class)
+                .setParameter("id", productId)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private void recordWait(Long productId, long nanos) {
+        updateWaitNanos.add(nanos);
+        if (nanos >= TimeUnit.MILLISECONDS.toNanos(contentionThresholdMillis)) {
+            contendedUpdates.increment();
+            conflictsByProduct.computeIfAbsent(productId, id -> new LongAdder()).increment();
+        }
+    }
+
+    private void record(StockMutationResult result) {
+        switch (result.getStatus()) {
+            case APPLIED -> applied.increment();
+            case REJECTED_NEGATIVE -> rejectedNegative.increment();
+            case NOT_FOUND -> notFound.increment();
+        }
+    }
+
+    public StockMutationStatsResponse getStats() {
+        Map<Long, Long> topContended = new LinkedHashMap<>();
+        conflictsByProduct.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, LongAdder> e) -> e.getValue().sum()).reversed())
+                .limit(TOP_CONTENDED_PRODUCTS)
+                .forEach(e -> topContended.put(e.getKey(), e.getValue().sum()));
+
+        return new StockMutationStatsResponse(
+                strategy,
+                applied.sum(),
+                rejectedNegative.sum(),
+                notFound.sum(),
+                conflicts.sum(),
+                retries.sum(),
+                exhausted.sum(),
+                contendedUpdates.sum(),
+                TimeUnit.NANOSECONDS.toMillis(updateWaitNanos.sum()),
+                topContended
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.enums.ReservationStatus;
+import org.blackequity.domain.model.stock.StockReservationEntity;
+import org.blackequity.domain.repository.stock.IStockReservationRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ApplicationScoped
+public class StockReservationRepositoryImpl implements IStockReservationRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void save(StockReservationEntity reservation) {
+        entityManager.persist(reservation);
+    }
+
+    /**
+     * Cierra la reserva solo si sigue activa; la BD decide entre un commit y una expiración simultáneos.
+     */
+    @Override
+    @Transactional
+    public boolean close(String reservationId, ReservationStatus status) {
+        return entityManager.createQuery("UPDATE StockReservationEntity r SET r.status = :status, r.closedAt = :now " +
+                        "WHERE r.id = :id AND r.status = :active")
+                .setParameter("status", status)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("id", reservationId)
+                .setParameter("active", ReservationStatus.ACTIVE)
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    public List<StockReservationEntity> findActive() {
+        return entityManager.createQuery("SELECT r FROM StockReservationEntity r WHERE r.status = :active",
+                        StockReservationEntity.class)
+                .setParameter("active", ReservationStatus.ACTIVE)
+                .getResultList();
+    }
+}
@@ -0,0 +1,19 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.blackequity.domain.model.stock.StockTakeEntity;
+import org.blackequity.domain.repository.stock.IStockTakeRepository;
+
+@ApplicationScoped
+public class StockTakeRepositoryImpl implements IStockTakeRepository {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Override
+    public void save(StockTakeEntity stockTake) {
+        entityManager.persist(stockTake);
+    }
+}
@@ -0,0 +1,350 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.domain.exception.ProductNotFoundException;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Modo opcional de write-behind para las ventas (stock.write-behind.enabled).
+ *
+ * Cada delta se anota en un journal local y se suma a un LongAdder por producto (en unidades
+ * escaladas por 10^stock.write-behind.scale), sin ir a la BD. Cada flush-interval-ms se rota el
+ * segmento del journal y los acumulados se aplican en una sola transacción batch; el segmento se
+ * borra tras el commit. Al arrancar se reaplican los segmentos pendientes, y la tabla
+ * stock_journal_checkpoints evita aplicar dos veces uno que ya llegó a la BD.
+ *
+ * Mientras un delta no ha llegado a la BD solo existe aquí: pendingDelta lo expone a quien calcula
+ * disponibilidad, y las escrituras absolutas de stock (conteos) deben llamar antes a flush.
+ */
+@ApplicationScoped
+public class StockWriteBehindBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockWriteBehindBuffer.class);
+
+    private static final String SEGMENT_PREFIX = "stock-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @ConfigProperty(name = "stock.write-behind.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "stock.write-behind.flush-interval-ms", defaultValue = "200")
+    long flushIntervalMillis;
+
+    @ConfigProperty(name = "stock.write-behind.journal-dir", defaultValue = "data/stock-journal")
+    String journalDir;
+
+    @ConfigProperty(name = "stock.write-behind.fsync", defaultValue = "true")
+    boolean fsync;
+
+    @ConfigProperty(name = "stock.write-behind.scale", defaultValue = "3")
+    int scale;
+
+    @ConfigProperty(name = "stock.mutation.reject-negative", defaultValue = "false")
+    boolean rejectNegative;
+
+    // pending: lo anotado en el segmento abierto; unapplied: todo lo anotado que aún no está en la BD
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> unapplied = new ConcurrentHashMap<>();
+    private final Set<Long> knownProducts = ConcurrentHashMap.newKeySet();
+    private final Deque<PendingSegment> failedSegments = new ArrayDeque<>();
+
+    // Lectura: anotar + sumar (concurrente). Escritura: rotar segmento + drenar contadores.
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private volatile boolean active;
+    private Path directory;
+    private long segment;
+    private FileChannel journal;
+    private ScheduledExecutorService flusher;
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+        if (rejectNegative) {
+            logger.warn("Write-behind de stock desactivado: incompatible con stock.mutation.reject-negative=true");
+            return;
+        }
+        try {
+            directory = Paths.get(journalDir);
+            Files.createDirectories(directory);
+            long lastSegment = recover();
+            Long lastCheckpoint = entityManager.createQuery(
+                            "SELECT MAX(c.segment) FROM StockJournalCheckpointEntity c", Long.class)
+                    .getSingleResult();
+            segment = Math.max(Math.max(lastSegment, lastCheckpoint == null ? 0L : lastCheckpoint),
+                    System.currentTimeMillis()) + 1;
+            journal = openSegment(segment);
+        } catch (Exception e) {
+            logger.error("No se pudo iniciar el write-behind de stock, las ventas se aplicarán en línea", e);
+            return;
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stock-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        active = true;
+        logger.info("Write-behind de stock activo: flush cada {} ms, journal en {}", flushIntervalMillis, directory);
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (!active) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        active = false;
+        flush();
+    }
+
+    /**
+     * Acepta los deltas si el modo está activo y todos son ventas representables en la escala
+     * configurada; en otro caso devuelve false y el llamador los aplica en línea.
+     */
+    public boolean offer(Map<Long, BigDecimal> deltas, StockMovementType type) {
+        if (!accepts(deltas, type)) {
+            return false;
+        }
+        Map<Long, Long> units = new TreeMap<>();
+        deltas.forEach((productId, delta) -> units.put(productId, delta.movePointRight(scale).longValueExact()));
+
+        StringBuilder lines = new StringBuilder();
+        units.forEach((productId, quantity) -> lines.append(productId).append(';').append(quantity).append('\n'));
+        ByteBuffer record = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        journalLock.readLock().lock();
+        try {
+            if (!active) {
+                return false;
+            }
+            while (record.hasRemaining()) {
+                journal.write(record);
+            }
+            if (fsync) {
+                journal.force(false);
+            }
+            units.forEach((productId, quantity) -> {
+                unapplied.computeIfAbsent(productId, id -> new LongAdder()).add(quantity);
+                pending.computeIfAbsent(productId, id -> new LongAdder()).add(quantity);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write stock journal", e);
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Comprueba sin anotar nada si offer aceptaría los deltas; los productos inexistentes se
+     * rechazan aquí para que el llamador pueda validarlos dentro de su transacción.
+     */
+    public boolean accepts(Map<Long, BigDecimal> deltas, StockMovementType type) {
+        if (!active || type != StockMovementType.SALE) {
+            return false;
+        }
+        for (BigDecimal delta : deltas.values()) {
+            if (delta.stripTrailingZeros().scale() > scale) {
+                return false;
+            }
+        }
+        ensureProductsExist(deltas.keySet());
+        return true;
+    }
+
+    /**
+     * Suma de los deltas anotados para el producto que aún no se han aplicado en la BD.
+     */
+    public BigDecimal pendingDelta(Long productId) {
+        LongAdder adder = unapplied.get(productId);
+        return adder == null ? BigDecimal.ZERO : BigDecimal.valueOf(adder.sum(), scale);
+    }
+
+    private void ensureProductsExist(Set<Long> productIds) {
+        List<Long> unknown = productIds.stream().filter(id -> !knownProducts.contains(id)).toList();
+        if (unknown.isEmpty()) {
+            return;
+        }
+        List<Long> found = entityManager.createQuery("SELECT p.id FROM Product p WHERE p.id IN :ids", Long.class)
+                .setParameter("ids", unknown)
+                .getResultList();
+        knownProducts.addAll(found);
+        if (found.size() < unknown.size()) {
+            throw new ProductNotFoundException("Products not found: " + unknown.stream().filter(id -> !found.contains(id)).toList());
+        }
+    }
+
+    /**
+     * Rota el segmento y aplica en la BD todo lo pendiente. Devuelve false si algún segmento no se
+     * pudo aplicar y sigue pendiente de reintento.
+     */
+    public synchronized boolean flush() {
+        PendingSegment closing = null;
+        if (journal != null) {
+            journalLock.writeLock().lock();
+            try {
+                // El segmento nuevo se abre antes de tocar el estado: si falla, el abierto sigue siendo el
+                // vivo, sus deltas no se drenan y su fichero no se encola para borrar
+                FileChannel next = active ? openSegment(segment + 1) : null;
+                closing = new PendingSegment(segment, drain());
+                FileChannel previous = journal;
+                journal = next;
+                segment++;
+                closeSegment(previous, closing.segment);
+            } catch (IOException e) {
+                logger.error("No se pudo abrir un segmento nuevo del journal de stock, se sigue anotando en el {}",
+                        segment, e);
+            } finally {
+                journalLock.writeLock().unlock();
+            }
+        }
+        if (closing != null) {
+            failedSegments.addLast(closing);
+        }
+
+        // Los segmentos fallidos se reintentan en orden; los deltas conmutan así que el orden solo importa para el log
+        while (!failedSegments.isEmpty()) {
+            PendingSegment next = failedSegments.peekFirst();
+            try {
+                if (!next.deltas.isEmpty()) {
+                    productRepository.applyJournalSegment(next.segment, next.deltas);
+                }
+                failedSegments.removeFirst();
+                next.deltas.forEach((productId, delta) ->
+                        unapplied.get(productId).add(-delta.movePointRight(scale).longValueExact()));
+                Files.deleteIfExists(segmentPath(next.segment));
+            } catch (Exception e) {
+                if (failedSegments.peekFirst() == next) {
+                    logger.error("No se pudo aplicar el segmento {} del journal de stock, se reintentará", next.segment, e);
+                    return false;
+                }
+                // El segmento ya está en la BD (checkpoint): solo falló el borrado del fichero
+                logger.warn("No se pudo borrar el segmento {} del journal de stock", next.segment, e);
+            }
+        }
+        return true;
+    }
+
+    // Se llama con el write lock: no hay anotaciones en curso, así lo drenado coincide con el segmento que se cierra
+    private Map<Long, BigDecimal> drain() {
+        Map<Long, BigDecimal> deltas = new HashMap<>();
+        pending.forEach((productId, adder) -> {
+            long units = adder.sum();
+            if (units != 0) {
+                adder.add(-units);
+                deltas.put(productId, BigDecimal.valueOf(units, scale));
+            }
+        });
+        return deltas;
+    }
+
+    private long recover() throws IOException {
+        Map<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+            }
+        }
+
+        long last = 0L;
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            Map<Long, BigDecimal> deltas = new HashMap<>();
+            for (String line : Files.readAllLines(entry.getValue(), StandardCharsets.UTF_8)) {
+                String[] parts = line.split(";");
+                // Una línea truncada por la caída nunca se confirmó al llamador
+                if (parts.length != 2) {
+                    continue;
+                }
+                try {
+                    deltas.merge(Long.parseLong(parts[0]), BigDecimal.valueOf(Long.parseLong(parts[1]), scale), BigDecimal::add);
+                } catch (NumberFormatException e) {
+                    logger.warn("Línea inválida en {}: {}", entry.getValue(), line);
+                }
+            }
+            deltas.values().removeIf(delta -> delta.signum() == 0);
+            if (!deltas.isEmpty()) {
+                productRepository.applyJournalSegment(entry.getKey(), deltas);
+            }
+            Files.delete(entry.getValue());
+            last = entry.getKey();
+            logger.info("Segmento {} del journal de stock recuperado: {} productos", entry.getKey(), deltas.size());
+        }
+        return last;
+    }
+
+    // Cada anotación ya se escribió (y con fsync se forzó) antes de confirmarse: un fallo al cerrar no pierde datos
+    private void closeSegment(FileChannel channel, long id) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("No se pudo cerrar el segmento {} del journal de stock", id, e);
+        }
+    }
+
+    private FileChannel openSegment(long id) throws IOException {
+        return FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    }
+
+    private static final class PendingSegment {
+        private final long segment;
+        private final Map<Long, BigDecimal> deltas;
+
+        private PendingSegment(long segment, Map<Long, BigDecimal> deltas) {
+            this.segment = segment;
+            this.deltas = deltas;
+        }
+    }
+}
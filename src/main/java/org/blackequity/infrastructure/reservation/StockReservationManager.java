@@ -0,0 +1,468 @@
+package org.blackequity.infrastructure.reservation;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.enums.ReservationStatus;
+import org.blackequity.domain.enums.StockMovementType;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.blackequity.domain.event.StockChangedEvent;
+import org.blackequity.domain.event.StockReservationClosedEvent;
+import org.blackequity.domain.exception.InsufficientStockException;
+import org.blackequity.domain.exception.ProductNotFoundException;
+import org.blackequity.domain.exception.ReservationNotFoundException;
+import org.blackequity.domain.model.stock.StockReservationEntity;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.domain.repository.stock.IStockReservationRepository;
+import org.blackequity.infrastructure.repository.stock.StockWriteBehindBuffer;
+import org.blackequity.shared.dto.StockAvailabilityResponse;
+import org.blackequity.shared.dto.StockReservationResponse;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reservas de stock para ventas en curso sobre Product.stock.
+ *
+ * Por producto se mantiene en memoria el stock confirmado y lo reservado, protegidos por locks
+ * repartidos en franjas (stripes) por id, así consultar disponibilidad no toca la BD. Cada reserva
+ * se persiste en stock_reservations y se programa en una rueda de temporización que libera las
+ * abandonadas. Al confirmar, el descuento real pasa por IProductRepository.updateStock. Las ventas
+ * que siguen en el journal de write-behind también restan de lo disponible. Los descuentos sin
+ * reserva (ventas, ajustes, consumos) pasan por holdUnreserved y no pueden invadir lo reservado.
+ */
+@ApplicationScoped
+public class StockReservationManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationManager.class);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    IStockReservationRepository reservationRepository;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    StockWriteBehindBuffer writeBehindBuffer;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @Inject
+    Event<StockReservationClosedEvent> reservationClosedEvent;
+
+    @ConfigProperty(name = "stock.reservation.default-ttl-seconds", defaultValue = "300")
+    long defaultTtlSeconds;
+
+    @ConfigProperty(name = "stock.reservation.max-ttl-seconds", defaultValue = "1800")
+    long maxTtlSeconds;
+
+    @ConfigProperty(name = "stock.reservation.stripes", defaultValue = "64")
+    int stripeCount;
+
+    @ConfigProperty(name = "stock.reservation.tick-ms", defaultValue = "250")
+    long tickMillis;
+
+    @ConfigProperty(name = "stock.reservation.wheel-size", defaultValue = "512")
+    int wheelSize;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private ReentrantLock[] stripes;
+    private TimerWheel wheel;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void init() {
+        int size = Integer.highestOneBit(Math.max(stripeCount, 2) - 1) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        wheel = new TimerWheel(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            List<Object[]> rows = entityManager.createQuery(
+                            "SELECT p.id, p.stock, p.version FROM Product p", Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                counters.put((Long) row[0], new Counter((BigDecimal) row[1], row[2] == null ? 0L : (Long) row[2]));
+            }
+
+            // Las reservas activas sobreviven a un reinicio; las ya vencidas expiran en el primer tick
+            List<StockReservationEntity> active = reservationRepository.findActive();
+            for (StockReservationEntity entity : active) {
+                Counter counter = counters.get(entity.getProductId());
+                if (counter != null) {
+                    counter.reserved = counter.reserved.add(entity.getQuantity());
+                }
+                reservations.put(entity.getId(), new Reservation(entity.getProductId(), entity.getQuantity()));
+                wheel.schedule(entity.getId(), toMillis(entity.getExpiresAt()));
+            }
+            logger.info("Reservas de stock cargadas: {} productos, {} reservas activas", counters.size(), active.size());
+        } catch (Exception e) {
+            logger.error("No se pudo cargar el estado de reservas de stock", e);
+        }
+
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stock-reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    public StockReservationResponse reserve(Long productId, BigDecimal quantity, Long ttlSeconds, String reference) {
+        if (quantity == null || quantity.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be positive");
+        }
+        long ttl = ttlSeconds == null ? defaultTtlSeconds : ttlSeconds;
+        if (ttl <= 0 || ttl > maxTtlSeconds) {
+            throw new IllegalArgumentException("Reservation TTL must be between 1 and " + maxTtlSeconds + " seconds");
+        }
+
+        Counter counter = counter(productId);
+        String reservationId = UUID.randomUUID().toString();
+        BigDecimal available;
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            available = counter.onHand.add(writeBehindBuffer.pendingDelta(productId)).subtract(counter.reserved);
+            if (available.compareTo(quantity) < 0) {
+                throw new InsufficientStockException("Insufficient stock for product " + productId +
+                        ": available " + available + ", requested " + quantity);
+            }
+            counter.reserved = counter.reserved.add(quantity);
+            reservations.put(reservationId, new Reservation(productId, quantity));
+        } finally {
+            lock.unlock();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(ttl);
+        try {
+            reservationRepository.save(StockReservationEntity.builder()
+                    .id(reservationId)
+                    .productId(productId)
+                    .quantity(quantity)
+                    .status(ReservationStatus.ACTIVE)
+                    .reference(reference)
+                    .createdAt(now)
+                    .expiresAt(expiresAt)
+                    .build());
+        } catch (RuntimeException e) {
+            releaseInMemory(reservationId, productId, null, null);
+            throw e;
+        }
+        wheel.schedule(reservationId, toMillis(expiresAt));
+        return new StockReservationResponse(reservationId, productId, quantity, expiresAt, available.subtract(quantity));
+    }
+
+    /**
+     * Descuenta el stock reservado en la misma transacción que cierra la reserva; lo reservado en
+     * memoria se libera tras el commit junto con el stock resultante.
+     */
+    @Transactional
+    public StockMutationResult commit(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservationRepository.close(reservationId, ReservationStatus.COMMITTED)) {
+            throw new ReservationNotFoundException("Active reservation not found: " + reservationId);
+        }
+        return commit(reservationId, reservation);
+    }
+
+    /**
+     * Igual que commit(reservationId), pero antes comprueba que la reserva sea del producto y la
+     * cantidad esperados (la línea de venta que la consume).
+     */
+    @Transactional
+    public StockMutationResult commit(String reservationId, Long productId, BigDecimal quantity) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null) {
+            throw new ReservationNotFoundException("Active reservation not found: " + reservationId);
+        }
+        if (!reservation.productId.equals(productId) || reservation.quantity.compareTo(quantity) != 0) {
+            throw new IllegalArgumentException("Reservation " + reservationId + " is for " + reservation.quantity +
+                    " units of product " + reservation.productId + ", not " + quantity + " units of product " + productId);
+        }
+        if (!reservationRepository.close(reservationId, ReservationStatus.COMMITTED)) {
+            throw new ReservationNotFoundException("Active reservation not found: " + reservationId);
+        }
+        return commit(reservationId, reservation);
+    }
+
+    private StockMutationResult commit(String reservationId, Reservation reservation) {
+        StockMutationResult result = productRepository.updateStock(reservation.productId, reservation.quantity.negate(),
+                StockMovementType.SALE, "reservation:" + reservationId);
+        reservationClosedEvent.fire(new StockReservationClosedEvent(reservationId, reservation.productId,
+                ReservationStatus.COMMITTED, result.getStock(), result.getVersion()));
+        return result;
+    }
+
+    public void release(String reservationId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || !reservationRepository.close(reservationId, ReservationStatus.RELEASED)) {
+            throw new ReservationNotFoundException("Active reservation not found: " + reservationId);
+        }
+        reservationClosedEvent.fire(new StockReservationClosedEvent(reservationId, reservation.productId,
+                ReservationStatus.RELEASED, null, null));
+    }
+
+    /**
+     * Comprueba que los descuentos (deltas negativos) caben en lo no reservado y los aparta como si
+     * fueran reservas hasta que termina la transacción en curso, así dos descuentos concurrentes no
+     * pueden consumir juntos lo que otra venta tiene reservado. Los deltas positivos se ignoran.
+     */
+    public void holdUnreserved(Map<Long, BigDecimal> deltas) {
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            throw new IllegalStateException("Holding unreserved stock requires an active transaction");
+        }
+        Map<Long, BigDecimal> held = hold(deltas);
+        if (held.isEmpty()) {
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                releaseHeld(held);
+            }
+        });
+    }
+
+    /**
+     * Como holdUnreserved, pero la retención no termina con ninguna transacción: dura hasta cerrar el
+     * UnreservedHold devuelto. Es para las ventas con write-behind, cuyo descuento llega al journal
+     * después del commit; soltarla al confirmar dejaría vender dos veces el mismo stock en ese hueco.
+     */
+    public UnreservedHold holdUnreservedUntilClosed(Map<Long, BigDecimal> deltas) {
+        Map<Long, BigDecimal> held = hold(deltas);
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                releaseHeld(held);
+            }
+        };
+    }
+
+    private Map<Long, BigDecimal> hold(Map<Long, BigDecimal> deltas) {
+        Map<Long, BigDecimal> held = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+                if (delta.getValue().signum() >= 0) {
+                    continue;
+                }
+                Long productId = delta.getKey();
+                BigDecimal quantity = delta.getValue().negate();
+                Counter counter = counter(productId);
+                ReentrantLock lock = stripe(productId);
+                lock.lock();
+                try {
+                    BigDecimal available = counter.onHand.add(writeBehindBuffer.pendingDelta(productId))
+                            .subtract(counter.reserved);
+                    if (available.compareTo(quantity) < 0) {
+                        throw new InsufficientStockException("Insufficient unreserved stock for product " + productId +
+                                ": available " + available + ", requested " + quantity);
+                    }
+                    counter.reserved = counter.reserved.add(quantity);
+                    held.put(productId, quantity);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            releaseHeld(held);
+            throw e;
+        }
+        return held;
+    }
+
+    public StockAvailabilityResponse getAvailability(Long productId) {
+        Counter counter = counter(productId);
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            BigDecimal onHand = counter.onHand.add(writeBehindBuffer.pendingDelta(productId));
+            return new StockAvailabilityResponse(productId, onHand, counter.reserved, onHand.subtract(counter.reserved));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onReservationClosed(@Observes(during = TransactionPhase.AFTER_SUCCESS) StockReservationClosedEvent event) {
+        releaseInMemory(event.getReservationId(), event.getProductId(), event.getStock(), event.getVersion());
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        counters.putIfAbsent(event.getProductId(), new Counter(event.getStock(), event.getVersion()));
+    }
+
+    void onStockChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StockChangedEvent event) {
+        Counter counter = counters.get(event.getProductId());
+        if (counter == null) {
+            return;
+        }
+        ReentrantLock lock = stripe(event.getProductId());
+        lock.lock();
+        try {
+            counter.apply(event.getStock(), event.getVersion());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expireDue() {
+        try {
+            for (String reservationId : wheel.advance(System.currentTimeMillis())) {
+                Reservation reservation = reservations.get(reservationId);
+                if (reservation == null) {
+                    continue;
+                }
+                if (reservationRepository.close(reservationId, ReservationStatus.EXPIRED)) {
+                    logger.info("Reserva {} expirada: {} unidades del producto {} liberadas",
+                            reservationId, reservation.quantity, reservation.productId);
+                    reservationClosedEvent.fire(new StockReservationClosedEvent(reservationId, reservation.productId,
+                            ReservationStatus.EXPIRED, null, null));
+                } else {
+                    // La fila no llegó a confirmarse o ya se cerró por otra vía: solo se limpia la memoria
+                    releaseInMemory(reservationId, reservation.productId, null, null);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error al expirar reservas de stock", e);
+        }
+    }
+
+    // Quien consigue sacar la reserva del mapa es el único que descuenta lo reservado
+    private void releaseInMemory(String reservationId, Long productId, BigDecimal stock, Long version) {
+        Reservation reservation = reservations.remove(reservationId);
+        Counter counter = counters.get(productId);
+        if (counter == null) {
+            return;
+        }
+        ReentrantLock lock = stripe(productId);
+        lock.lock();
+        try {
+            if (reservation != null) {
+                counter.reserved = counter.reserved.subtract(reservation.quantity);
+            }
+            counter.apply(stock, version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseHeld(Map<Long, BigDecimal> held) {
+        held.forEach((productId, quantity) -> {
+            ReentrantLock lock = stripe(productId);
+            lock.lock();
+            try {
+                Counter counter = counters.get(productId);
+                counter.reserved = counter.reserved.subtract(quantity);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private Counter counter(Long productId) {
+        Counter counter = counters.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        Object[] row = entityManager.createQuery(
+                        "SELECT p.stock, p.version FROM Product p WHERE p.id = :id", Object[].class)
+                .setParameter("id", productId)
+                .getResultStream()
+                .findFirst()
+                .orElseThrow(() -> new ProductNotFoundException("Product not found: " + productId));
+        counters.putIfAbsent(productId, new Counter((BigDecimal) row[0], row[1] == null ? 0L : (Long) row[1]));
+        return counters.get(productId);
+    }
+
+    private ReentrantLock stripe(Long productId) {
+        int hash = Long.hashCode(productId);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Campos protegidos por el lock de la franja del producto
+    private static final class Counter {
+        private BigDecimal onHand;
+        private BigDecimal reserved = BigDecimal.ZERO;
+        private long version;
+
+        private Counter(BigDecimal onHand, long version) {
+            this.onHand = onHand;
+            this.version = version;
+        }
+
+        private void apply(BigDecimal stock, Long newVersion) {
+            if (stock != null && newVersion != null && newVersion > version) {
+                onHand = stock;
+                version = newVersion;
+            }
+        }
+    }
+
+    private static final class Reservation {
+        private final Long productId;
+        private final BigDecimal quantity;
+
+        private Reservation(Long productId, BigDecimal quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+
+    /**
+     * Stock sin reserva apartado por holdUnreservedUntilClosed; cerrarlo más de una vez no tiene efecto.
+     */
+    public interface UnreservedHold extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,69 @@
+package org.blackequity.infrastructure.reservation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Rueda de temporización (hashed timing wheel) para expirar reservas.
+ *
+ * Programar es O(1) desde cualquier hilo; un único hilo avanza la rueda y en cada tick solo
+ * recorre el bucket actual, así miles de reservas vivas no cuestan un escaneo completo.
+ */
+final class TimerWheel {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int size, long startMillis) {
+        int wheelSize = Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    void schedule(String key, long deadlineMillis) {
+        long deadlineTick = Math.max((deadlineMillis - startMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        buckets[(int) (deadlineTick & mask)].add(new Timeout(key, deadlineTick));
+    }
+
+    /**
+     * Avanza hasta nowMillis y devuelve las claves vencidas. Solo debe llamarlo un hilo.
+     */
+    List<String> advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        List<String> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            Iterator<Timeout> iterator = buckets[(int) (currentTick & mask)].iterator();
+            while (iterator.hasNext()) {
+                Timeout timeout = iterator.next();
+                if (timeout.deadlineTick <= currentTick) {
+                    iterator.remove();
+                    expired.add(timeout.key);
+                }
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    private static final class Timeout {
+        private final String key;
+        private final long deadlineTick;
+
+        private Timeout(String key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
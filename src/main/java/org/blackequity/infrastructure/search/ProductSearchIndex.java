@@ -0,0 +1,282 @@
+package org.blackequity.infrastructure.search;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de búsqueda en memoria para el autocompletado del POS.
+ *
+ * Mapa ordenado (longitud, token) → ids sobre el nombre y la categoría, más un índice de trigramas
+ * para tolerar errores de tipeo. Los textos se normalizan sin tildes.
+ *
+ * Un prefijo corto ("a") abarca media tabla de tokens: se recorre longitud a longitud, de los tokens
+ * más cortos (los más parecidos a la consulta) a los más largos, con un subMap por longitud, y el
+ * recorrido se corta tras MAX_PREFIX_CANDIDATES ids. El ranking se queda con los limit mejores en un
+ * heap, sin ordenar todos los candidatos. index() reindexa un producto existente retirando sus tokens
+ * anteriores.
+ */
+@ApplicationScoped
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private static final double EXACT_NAME_TOKEN = 3.0;
+    private static final double PREFIX_NAME_TOKEN = 2.0;
+    private static final double CATEGORY_TOKEN = 1.0;
+    private static final double NAME_PREFIX_BONUS = 5.0;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.3;
+    private static final int MAX_PREFIX_CANDIDATES = 1000;
+    private static final int MAX_TRIGRAM_CANDIDATES = 1000;
+
+    // Mayor puntuación primero; a igual puntuación, el nombre más corto
+    private static final Comparator<Candidate> RANKING = Comparator.comparingDouble((Candidate c) -> c.score).reversed()
+            .thenComparingInt(c -> c.nameLength);
+
+    @Inject
+    EntityManager entityManager;
+
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<Long, String> categories = new ConcurrentHashMap<>();
+    // Claves de lengthKey: dentro de cada longitud el orden es lexicográfico
+    private final ConcurrentSkipListMap<String, Set<Long>> nameTokens = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> categoryTokens = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<Long>> trigrams = new ConcurrentHashMap<>();
+    private volatile int maxTokenLength;
+
+    @Transactional
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            List<Object[]> rows = entityManager.createQuery(
+                            "SELECT p.id, p.name, c.name FROM Product p JOIN p.category c", Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                index((Long) row[0], (String) row[1], (String) row[2]);
+            }
+            logger.info("Índice de búsqueda de productos construido: {} productos", names.size());
+        } catch (Exception e) {
+            logger.error("No se pudo construir el índice de búsqueda de productos", e);
+        }
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        index(event.getProductId(), event.getName(), event.getCategoryName());
+    }
+
+    /**
+     * Indexa el producto; si ya estaba indexado con otro nombre o categoría se retiran antes sus
+     * tokens anteriores.
+     */
+    public synchronized void index(Long productId, String name, String categoryName) {
+        String normalizedName = normalize(name);
+        String normalizedCategory = normalize(categoryName);
+        if (normalizedName.equals(names.get(productId)) && normalizedCategory.equals(categories.get(productId))) {
+            return;
+        }
+        remove(productId);
+
+        names.put(productId, normalizedName);
+        categories.put(productId, normalizedCategory);
+        for (String token : tokenize(normalizedName)) {
+            link(nameTokens, token, productId);
+        }
+        for (String token : tokenize(normalizedCategory)) {
+            link(categoryTokens, token, productId);
+        }
+        for (String gram : trigramsOf(normalizedName)) {
+            trigrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(productId);
+        }
+    }
+
+    public synchronized void remove(Long productId) {
+        String previousName = names.remove(productId);
+        String previousCategory = categories.remove(productId);
+        if (previousName != null) {
+            tokenize(previousName).forEach(token -> unlink(nameTokens, lengthKey(token), productId));
+            trigramsOf(previousName).forEach(gram -> unlink(trigrams, gram, productId));
+        }
+        if (previousCategory != null) {
+            tokenize(previousCategory).forEach(token -> unlink(categoryTokens, lengthKey(token), productId));
+        }
+    }
+
+    private void link(ConcurrentSkipListMap<String, Set<Long>> tokens, String token, Long productId) {
+        tokens.computeIfAbsent(lengthKey(token), t -> ConcurrentHashMap.newKeySet()).add(productId);
+        if (token.length() > maxTokenLength) {
+            maxTokenLength = token.length();
+        }
+    }
+
+    private static void unlink(Map<String, Set<Long>> index, String key, Long productId) {
+        Set<Long> ids = index.get(key);
+        if (ids != null && ids.remove(productId) && ids.isEmpty()) {
+            index.remove(key, ids);
+        }
+    }
+
+    /**
+     * Devuelve los ids ordenados por relevancia: coincidencias de prefijo en el nombre, luego en
+     * la categoría y, si no se llena el límite, similitud por trigramas.
+     */
+    public List<Long> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        if (normalizedQuery.isEmpty()) {
+            return List.of();
+        }
+
+        // Dimensionado para nombre + categoría de un token sin rehashes
+        Map<Long, Double> scores = new HashMap<>(4 * MAX_PREFIX_CANDIDATES);
+        for (String token : tokenize(normalizedQuery)) {
+            collectPrefix(nameTokens, token,
+                    (exact, id) -> scores.merge(id, exact ? EXACT_NAME_TOKEN : PREFIX_NAME_TOKEN, Double::sum));
+            collectPrefix(categoryTokens, token, (exact, id) -> scores.merge(id, CATEGORY_TOKEN, Double::sum));
+        }
+
+        if (scores.size() < limit) {
+            collectSimilar(normalizedQuery, (id, similarity) -> scores.merge(id, similarity, Double::sum));
+        }
+
+        // Heap con los limit mejores: la cabeza es el peor de ellos y solo entra quien lo supera
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        scores.forEach((id, score) -> {
+            String name = names.getOrDefault(id, "");
+            Candidate candidate = new Candidate(id,
+                    name.startsWith(normalizedQuery) ? score + NAME_PREFIX_BONUS : score, name.length());
+            if (top.size() < limit) {
+                top.offer(candidate);
+            } else if (RANKING.compare(candidate, top.peek()) < 0) {
+                top.poll();
+                top.offer(candidate);
+            }
+        });
+
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        ranked.forEach(candidate -> ids.add(candidate.id));
+        return ids;
+    }
+
+    // Recorre los tokens con ese prefijo de menor a mayor longitud hasta visitar MAX_PREFIX_CANDIDATES ids;
+    // el corte puede caer dentro de un token muy común ("agua" en miles de productos)
+    private void collectPrefix(ConcurrentSkipListMap<String, Set<Long>> tokens, String prefix,
+                               BiConsumer<Boolean, Long> visitor) {
+        int budget = MAX_PREFIX_CANDIDATES;
+        for (int length = prefix.length(); length <= maxTokenLength; length++) {
+            boolean exact = length == prefix.length();
+            String from = (char) length + prefix;
+            for (Set<Long> ids : tokens.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+                for (Long id : ids) {
+                    visitor.accept(exact, id);
+                    if (--budget == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Productos con al menos MIN_TRIGRAM_SIMILARITY de los trigramas de la consulta. Todo producto que
+     * comparta required trigramas aparece en alguna de las n - required + 1 listas menos frecuentes:
+     * solo esas se recorren, hasta MAX_TRIGRAM_CANDIDATES ids, y el resto se consulta por pertenencia.
+     */
+    private void collectSimilar(String normalizedQuery, BiConsumer<Long, Double> visitor) {
+        Set<String> queryGrams = trigramsOf(normalizedQuery);
+        List<Set<Long>> postings = new ArrayList<>(queryGrams.size());
+        for (String gram : queryGrams) {
+            Set<Long> ids = trigrams.get(gram);
+            if (ids != null) {
+                postings.add(ids);
+            }
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        int required = (int) Math.ceil(MIN_TRIGRAM_SIMILARITY * queryGrams.size());
+        int budget = MAX_TRIGRAM_CANDIDATES;
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < postings.size() - required + 1; i++) {
+            for (Long id : postings.get(i)) {
+                if (!seen.add(id)) {
+                    continue;
+                }
+                int shared = 0;
+                for (Set<Long> ids : postings) {
+                    if (ids.contains(id)) {
+                        shared++;
+                    }
+                }
+                double similarity = (double) shared / queryGrams.size();
+                if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                    visitor.accept(id, similarity);
+                }
+                if (--budget == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static String lengthKey(String token) {
+        return (char) token.length() + token;
+    }
+
+    private static final class Candidate {
+        private final Long id;
+        private final double score;
+        private final int nameLength;
+
+        private Candidate(Long id, double score, int nameLength) {
+            this.id = id;
+            this.score = score;
+            this.nameLength = nameLength;
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static List<String> tokenize(String normalized) {
+        return normalized.isEmpty() ? List.of() : List.of(normalized.split(" "));
+    }
+
+    private static Set<String> trigramsOf(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        String padded = "  " + normalized + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
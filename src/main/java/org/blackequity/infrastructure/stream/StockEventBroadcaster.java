@@ -0,0 +1,170 @@
+package org.blackequity.infrastructure.stream;
+
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.blackequity.domain.event.ProductCreatedEvent;
+import org.blackequity.domain.event.StockChangedEvent;
+import org.blackequity.shared.dto.StockChangeMessage;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Difunde por SSE los cambios de stock confirmados a los terminales POS conectados.
+ *
+ * Cada suscriptor tiene una cola acotada que se vacía en un pool compartido; si la cola se llena
+ * el suscriptor se desconecta, de modo que un cliente lento nunca bloquea a quien escribe stock.
+ * Cada envío espera como mucho send-timeout-ms; si no termina, el suscriptor también se desconecta
+ * para que un socket atascado no retenga un hilo del pool.
+ */
+@ApplicationScoped
+public class StockEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockEventBroadcaster.class);
+
+    @ConfigProperty(name = "stock.stream.buffer-size", defaultValue = "256")
+    int bufferSize;
+
+    @ConfigProperty(name = "stock.stream.sender-threads", defaultValue = "4")
+    int senderThreads;
+
+    @ConfigProperty(name = "stock.stream.send-timeout-ms", defaultValue = "2000")
+    long sendTimeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile ExecutorService sender;
+
+    public void register(SseEventSink sink, Sse sse) {
+        subscribers.add(new Subscriber(sink, sse, new ArrayBlockingQueue<>(bufferSize)));
+        logger.info("Terminal suscrito a cambios de stock ({} activos)", subscribers.size());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductCreatedEvent event) {
+        publish(new StockChangeMessage("CREATED", event.getProductId(), event.getStock(), null, event.getVersion()));
+    }
+
+    void onStockChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) StockChangedEvent event) {
+        publish(new StockChangeMessage("STOCK", event.getProductId(), event.getStock(), event.getDelta(), event.getVersion()));
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        subscribers.forEach(Subscriber::close);
+        subscribers.clear();
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+    }
+
+    private void publish(StockChangeMessage message) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sink.isClosed()) {
+                subscribers.remove(subscriber);
+            } else if (!subscriber.offer(message)) {
+                logger.warn("Terminal lento desconectado: buffer de {} eventos lleno", bufferSize);
+                subscribers.remove(subscriber);
+                subscriber.close();
+            }
+        }
+    }
+
+    private ExecutorService sender() {
+        if (sender == null) {
+            synchronized (this) {
+                if (sender == null) {
+                    sender = Executors.newFixedThreadPool(senderThreads);
+                }
+            }
+        }
+        return sender;
+    }
+
+    private final class Subscriber {
+        private final SseEventSink sink;
+        private final Sse sse;
+        private final BlockingQueue<StockChangeMessage> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Subscriber(SseEventSink sink, Sse sse, BlockingQueue<StockChangeMessage> queue) {
+            this.sink = sink;
+            this.sse = sse;
+            this.queue = queue;
+        }
+
+        private boolean offer(StockChangeMessage message) {
+            if (!queue.offer(message)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender().execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                StockChangeMessage message;
+                while ((message = queue.poll()) != null) {
+                    OutboundSseEvent event = sse.newEventBuilder()
+                            .name("stock")
+                            .id(message.getProductId() + ":" + message.getVersion())
+                            .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                            .data(StockChangeMessage.class, message)
+                            .build();
+                    sink.send(event).toCompletableFuture().get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (TimeoutException e) {
+                logger.warn("Terminal lento desconectado: envío sin completar en {} ms", sendTimeoutMillis);
+                subscribers.remove(this);
+                close();
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                subscribers.remove(this);
+                close();
+                return;
+            } catch (Exception e) {
+                logger.debug("Se cerró la conexión SSE de un terminal", e);
+                subscribers.remove(this);
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            try {
+                sink.close();
+            } catch (Exception e) {
+                logger.debug("Error al cerrar conexión SSE", e);
+            }
+        }
+    }
+}
@@ -12,6 +12,11 @@ import java.math.BigDecimal;
  */
 public class TicketItem {
 
+    // Opcionales: sin productId la línea se registra pero no descuenta stock
+    private Long productId;
+
+    private String reservationId;
+
     @NotBlank(message = "El nombre del producto es obligatorio")
     private String name;
 
@@ -27,6 +32,22 @@ public class TicketItem {
 
     // Getters y Setters
 
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
     public String getName() {
         return name;
     }
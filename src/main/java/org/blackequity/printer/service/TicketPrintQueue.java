@@ -0,0 +1,80 @@
+package org.blackequity.printer.service;
+
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.blackequity.domain.event.SaleBookedEvent;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de impresión de tickets de venta.
+ *
+ * Las ventas confirmadas se imprimen en un único hilo (la impresora es un puerto serie), así la
+ * latencia de la impresora no alarga la respuesta HTTP de la venta.
+ */
+@ApplicationScoped
+public class TicketPrintQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(TicketPrintQueue.class);
+
+    @Inject
+    PrinterService printerService;
+
+    @ConfigProperty(name = "printer.queue-size", defaultValue = "100")
+    int queueSize;
+
+    private volatile ThreadPoolExecutor executor;
+
+    void onSaleBooked(@Observes(during = TransactionPhase.AFTER_SUCCESS) SaleBookedEvent event) {
+        if (!event.isPrint()) {
+            return;
+        }
+        try {
+            executor().execute(() -> {
+                try {
+                    printerService.printTicket(event.getTicket());
+                } catch (Exception e) {
+                    LOGGER.error("Error al imprimir el ticket " + event.getTicket().getTicketNumber()
+                            + " de la venta " + event.getSaleId(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Cola de impresión llena, ticket " + event.getTicket().getTicketNumber() + " no impreso");
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private ThreadPoolExecutor executor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(queueSize), r -> {
+                                Thread thread = new Thread(r, "ticket-printer");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                }
+            }
+        }
+        return executor;
+    }
+}
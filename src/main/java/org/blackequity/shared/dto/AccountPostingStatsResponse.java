@@ -0,0 +1,19 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountPostingStatsResponse {
+    private long debitsPosted;
+    private long paymentsPosted;
+    private long rejected;
+    private long averageLockWaitMicros;
+    private long maxLockWaitMicros;
+    private long averagePostingMicros;
+}
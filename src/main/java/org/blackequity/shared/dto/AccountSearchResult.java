@@ -0,0 +1,22 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSearchResult {
+    private String id;
+    private String customerName;
+    private String customerDocument;
+    private String customerPhone;
+    private BigDecimal totalDebt;
+    private BigDecimal availableCredit;
+    private String status;
+}
@@ -0,0 +1,19 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogCacheStatsResponse {
+    private int size;
+    private int maxSize;
+    private boolean complete;
+    private long hits;
+    private long misses;
+    private long evictions;
+}
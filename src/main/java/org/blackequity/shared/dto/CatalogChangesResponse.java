@@ -0,0 +1,20 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesResponse {
+    private long since;
+    private long nextSince; // Valor a enviar como since en la siguiente llamada
+    private boolean hasMore;
+    private List<CategoryChangeDTO> categories;
+    private List<ProductChangeDTO> products;
+}
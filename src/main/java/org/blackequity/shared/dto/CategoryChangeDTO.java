@@ -0,0 +1,16 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryChangeDTO {
+    private Long id;
+    private String name;
+    private Long changeVersion;
+}
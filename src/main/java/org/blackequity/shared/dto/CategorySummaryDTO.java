@@ -0,0 +1,20 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySummaryDTO {
+    private Long id;
+    private String name;
+    private long productCount;
+    private BigDecimal totalStock;
+    private BigDecimal stockValue;
+}
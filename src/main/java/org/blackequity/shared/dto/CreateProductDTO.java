@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 @Setter
 public class CreateProductDTO {
     private String name;
+    private String barcode;
     private BigDecimal price;
     private BigDecimal stock;
     private BigDecimal minStock;
@@ -0,0 +1,17 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DebtTransactionPageResponse {
+    private List<DebtTransactionDto> items;
+    private String nextCursor; // null cuando no hay más páginas
+}
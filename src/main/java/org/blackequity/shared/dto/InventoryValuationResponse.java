@@ -0,0 +1,23 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.blackequity.domain.dto.inventory.CategoryValuation;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryValuationResponse {
+    private LocalDateTime generatedAt;
+    private long productCount;
+    private BigDecimal stockValue;
+    private long belowMinimumCount;
+    private List<CategoryValuation> categories;
+}
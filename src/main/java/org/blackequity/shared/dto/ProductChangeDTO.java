@@ -0,0 +1,23 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeDTO {
+    private Long id;
+    private String name;
+    private String barcode;
+    private BigDecimal price;
+    private BigDecimal stock;
+    private BigDecimal minStock;
+    private Long categoryId;
+    private Long changeVersion;
+}
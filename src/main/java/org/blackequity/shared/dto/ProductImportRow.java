@@ -0,0 +1,17 @@
+package org.blackequity.shared.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+public class ProductImportRow {
+    private String name;
+    private String barcode;
+    private BigDecimal price;
+    private BigDecimal stock;
+    private BigDecimal minStock;
+    private String category;
+}
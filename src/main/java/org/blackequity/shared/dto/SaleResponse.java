@@ -0,0 +1,24 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaleResponse {
+    private Long saleId;
+    private String ticketNumber;
+    private BigDecimal total;
+    private Map<Long, BigDecimal> stocks;
+    private boolean stockDeferred;
+    // La venta está registrada pero su descuento de stock no se pudo anotar ni aplicar
+    private String stockError;
+    private boolean printQueued;
+}
@@ -0,0 +1,35 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SecondLevelCacheStatsResponse {
+    private boolean statisticsEnabled;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long queryHits;
+    private long queryMisses;
+    private long queryPuts;
+    private List<RegionStats> regions;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RegionStats {
+        private String region;
+        private long hits;
+        private long misses;
+        private long puts;
+        private long elementsInMemory;
+    }
+}
@@ -0,0 +1,30 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.blackequity.domain.enums.StockMovementType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+
+    private StockMovementType type; // RECEIPT para entradas de mercancía; por defecto ADJUSTMENT
+    private String reference;
+    private List<Line> adjustments;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private BigDecimal quantity; // Positivo = entrada, negativo = salida
+    }
+}
@@ -0,0 +1,19 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAvailabilityResponse {
+    private Long productId;
+    private BigDecimal stock;
+    private BigDecimal reserved;
+    private BigDecimal available;
+}
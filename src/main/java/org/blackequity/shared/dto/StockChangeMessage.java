@@ -0,0 +1,20 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeMessage {
+    private String type; // CREATED | STOCK
+    private Long productId;
+    private BigDecimal stock;
+    private BigDecimal delta;
+    private Long version;
+}
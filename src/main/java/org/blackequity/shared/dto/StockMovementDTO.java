@@ -0,0 +1,23 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.blackequity.domain.enums.StockMovementType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDTO {
+    private Long productId;
+    private Long productVersion;
+    private BigDecimal quantity;
+    private StockMovementType type;
+    private String reference;
+    private LocalDateTime createdAt;
+}
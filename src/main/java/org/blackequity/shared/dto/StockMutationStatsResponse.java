@@ -0,0 +1,26 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMutationStatsResponse {
+    private String strategy;
+    private long applied;
+    private long rejectedNegative;
+    private long notFound;
+    private long conflicts;
+    private long retries;
+    private long exhausted;
+    // Solo modo atomic: UPDATE que esperaron más del umbral por el lock de fila, y espera total
+    private long contendedUpdates;
+    private long updateWaitMillis;
+    private Map<Long, Long> conflictsByProduct;
+}
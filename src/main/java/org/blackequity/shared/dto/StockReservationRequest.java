@@ -0,0 +1,17 @@
+package org.blackequity.shared.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class StockReservationRequest {
+    private Long productId;
+    private BigDecimal quantity;
+    private Long ttlSeconds;
+    private String reference;
+}
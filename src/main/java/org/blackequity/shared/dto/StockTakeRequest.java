@@ -0,0 +1,29 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTakeRequest {
+
+    private String reason;
+    private boolean dryRun; // true = solo calcula las diferencias, sin ajustar stock
+    private List<Line> counts;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private Long productId;
+        private BigDecimal counted; // Las líneas repetidas del mismo producto se suman (varias estanterías)
+    }
+}
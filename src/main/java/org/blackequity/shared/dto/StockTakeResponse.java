@@ -0,0 +1,23 @@
+package org.blackequity.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.blackequity.domain.dto.stock.StockTakeDiff;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTakeResponse {
+    private Long stockTakeId;
+    private boolean dryRun;
+    private int countedLines;
+    private int adjustedLines;
+    private BigDecimal netDelta;
+    private List<StockTakeDiff> diffs;
+}
@@ -0,0 +1,14 @@
+package org.blackequity.shared.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class UpdatePriceRequest {
+    private BigDecimal price;
+}
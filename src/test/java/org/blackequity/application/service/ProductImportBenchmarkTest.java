@@ -0,0 +1,64 @@
+package org.blackequity.application.service;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.blackequity.domain.model.Category;
+import org.blackequity.shared.dto.ProductImportResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Importación de 100k filas CSV en bloques de product.import.chunk-size. Se ejecuta con
+ * ./gradlew benchmark; el heap de la tarea está limitado a 1g.
+ */
+@QuarkusTest
+@Tag("benchmark")
+class ProductImportBenchmarkTest {
+
+    private static final int ROWS = 100_000;
+    private static final long MAX_SECONDS = 30;
+
+    @Inject
+    ProductImportService importService;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void imports100kRowsInSeconds() throws Exception {
+        String categoryName = "Importación " + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> {
+            Category category = new Category();
+            category.setName(categoryName);
+            entityManager.persist(category);
+        });
+
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        StringBuilder csv = new StringBuilder("name,barcode,price,stock,minStock,category\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("Producto ").append(i).append(',')
+                    .append(run).append('-').append(i).append(',')
+                    .append("1.50,10,2,").append(categoryName).append('\n');
+        }
+        byte[] input = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        ProductImportResponse response = importService.importProducts(new ByteArrayInputStream(input),
+                ProductImportService.FORMAT_CSV);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("Importación: %d filas en %d ms (%.0f filas/s)%n", ROWS, millis, ROWS * 1000.0 / millis);
+        assertEquals(ROWS, response.getImported(), "Errores: " + response.getErrors());
+        assertTrue(millis < TimeUnit.SECONDS.toMillis(MAX_SECONDS), "Importación lenta: " + millis + " ms");
+    }
+}
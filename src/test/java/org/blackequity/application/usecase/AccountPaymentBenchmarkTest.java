@@ -0,0 +1,111 @@
+package org.blackequity.application.usecase;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.blackequity.domain.dto.AccountReceivable;
+import org.blackequity.domain.repository.AccountReceivable.AccountReceivableRepository;
+import org.blackequity.shared.dto.CreateAccountRequest;
+import org.blackequity.shared.dto.MakePaymentRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pago sobre una cuenta con 10k movimientos frente a una cuenta con historial corto: el costo del
+ * pago no debe crecer con el historial. Se ejecuta con ./gradlew benchmark.
+ */
+@QuarkusTest
+@Tag("benchmark")
+class AccountPaymentBenchmarkTest {
+
+    private static final int HISTORY = 10_000;
+    private static final int SHORT_HISTORY = 10;
+    private static final int WARMUP = 50;
+    private static final int PAYMENTS = 500;
+    private static final BigDecimal DEBIT = new BigDecimal("10.00");
+    private static final BigDecimal PAYMENT = new BigDecimal("1.00");
+    private static final double MAX_MEDIAN_RATIO = 2.0;
+    private static final long MAX_P99_MICROS = 50_000;
+
+    @Inject
+    ManageAccountReceivableUseCase useCase;
+
+    @Inject
+    AccountReceivableRepository repository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void paymentCostDoesNotGrowWithHistory() {
+        String shortAccount = accountWithHistory(SHORT_HISTORY);
+        String longAccount = accountWithHistory(HISTORY);
+
+        pay(shortAccount, WARMUP);
+        pay(longAccount, WARMUP);
+        long[] shortMicros = pay(shortAccount, PAYMENTS);
+        long[] longMicros = pay(longAccount, PAYMENTS);
+
+        long shortMedian = percentile(shortMicros, 50);
+        long longMedian = percentile(longMicros, 50);
+        long longP99 = percentile(longMicros, 99);
+        System.out.printf("Pago con %d movimientos: p50 %d us, p99 %d us%n", SHORT_HISTORY, shortMedian, percentile(shortMicros, 99));
+        System.out.printf("Pago con %d movimientos: p50 %d us, p99 %d us%n", HISTORY, longMedian, longP99);
+
+        AccountReceivable account = repository.findByCustomerDocument(longAccount).orElseThrow();
+        BigDecimal expected = DEBIT.multiply(BigDecimal.valueOf(HISTORY))
+                .subtract(PAYMENT.multiply(BigDecimal.valueOf(WARMUP + PAYMENTS)));
+        assertEquals(0, expected.compareTo(account.getTotalDebt()));
+        assertTrue(longMedian <= Math.max(shortMedian, 1) * MAX_MEDIAN_RATIO,
+                "El pago crece con el historial: p50 " + longMedian + " us frente a " + shortMedian + " us");
+        assertTrue(longP99 < MAX_P99_MICROS, "Pago lento: p99 " + longP99 + " us");
+    }
+
+    // Los movimientos se siembran con un INSERT masivo: con addDebt la preparación dominaría el tiempo
+    private String accountWithHistory(int transactions) {
+        String document = UUID.randomUUID().toString().substring(0, 20);
+        BigDecimal debt = DEBIT.multiply(BigDecimal.valueOf(transactions));
+        useCase.createAccount(new CreateAccountRequest("Cliente benchmark", document, null, debt, null));
+        String accountId = repository.findByCustomerDocument(document).orElseThrow().getId();
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            entityManager.createNativeQuery(
+                            "INSERT INTO debt_transactions (id, account_id, type, amount, description, transaction_date, created_at) " +
+                                    "SELECT gen_random_uuid()::text, :accountId, 'DEBIT', :amount, 'cargo ' || n, " +
+                                    "CURRENT_DATE - (n % 365), now() FROM generate_series(1, :count) n")
+                    .setParameter("accountId", accountId)
+                    .setParameter("amount", DEBIT)
+                    .setParameter("count", transactions)
+                    .executeUpdate();
+            entityManager.createNativeQuery("UPDATE accounts_receivable SET total_debt = :debt WHERE id = :accountId")
+                    .setParameter("debt", debt)
+                    .setParameter("accountId", accountId)
+                    .executeUpdate();
+        });
+        return document;
+    }
+
+    private long[] pay(String document, int payments) {
+        long[] micros = new long[payments];
+        for (int i = 0; i < payments; i++) {
+            long start = System.nanoTime();
+            useCase.makePayment(new MakePaymentRequest(document, PAYMENT, "pago " + i, "CASH"));
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        return micros;
+    }
+
+    private static long percentile(long[] values, int percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
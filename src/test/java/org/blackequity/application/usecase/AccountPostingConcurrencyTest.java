@@ -0,0 +1,129 @@
+package org.blackequity.application.usecase;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.blackequity.domain.dto.AccountReceivable;
+import org.blackequity.domain.dto.DebtTransaction;
+import org.blackequity.domain.enums.TransactionType;
+import org.blackequity.domain.repository.AccountReceivable.AccountReceivableRepository;
+import org.blackequity.shared.dto.AddDebtRequest;
+import org.blackequity.shared.dto.CreateAccountRequest;
+import org.blackequity.shared.dto.MakePaymentRequest;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cargos y pagos concurrentes sobre una misma cuenta: el límite de crédito nunca se supera y el
+ * saldo coincide con la suma de los movimientos registrados.
+ */
+@QuarkusTest
+class AccountPostingConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int DEBITS = 200;
+    private static final BigDecimal CREDIT_LIMIT = new BigDecimal("1000.00");
+    private static final BigDecimal DEBIT = new BigDecimal("30.00");
+    private static final BigDecimal PAYMENT = new BigDecimal("20.00");
+
+    @Inject
+    ManageAccountReceivableUseCase useCase;
+
+    @Inject
+    AccountReceivableRepository repository;
+
+    @Test
+    void parallelDebitsNeverExceedCreditLimit() throws Exception {
+        String document = newAccount();
+
+        int accepted = runInParallel(DEBITS, i -> useCase.addDebt(
+                new AddDebtRequest(document, DEBIT, "cargo " + i, null)));
+
+        AccountReceivable account = repository.findByCustomerDocument(document).orElseThrow();
+        // 1000 / 30 = 33 cargos caben; el resto debe rechazarse
+        assertEquals(CREDIT_LIMIT.divideToIntegralValue(DEBIT).intValue(), accepted);
+        assertTrue(account.getTotalDebt().compareTo(CREDIT_LIMIT) <= 0);
+        assertBalanceConserved(account);
+    }
+
+    @Test
+    void parallelDebitsAndPaymentsConserveBalance() throws Exception {
+        String document = newAccount();
+        for (int i = 0; i < 10; i++) {
+            useCase.addDebt(new AddDebtRequest(document, DEBIT, "saldo inicial " + i, null));
+        }
+
+        runInParallel(DEBITS, i -> {
+            if (i % 2 == 0) {
+                useCase.addDebt(new AddDebtRequest(document, DEBIT, "cargo " + i, null));
+            } else {
+                useCase.makePayment(new MakePaymentRequest(document, PAYMENT, "pago " + i, "CASH"));
+            }
+        });
+
+        AccountReceivable account = repository.findByCustomerDocument(document).orElseThrow();
+        assertTrue(account.getTotalDebt().signum() >= 0);
+        assertTrue(account.getTotalDebt().compareTo(CREDIT_LIMIT) <= 0);
+        assertBalanceConserved(account);
+    }
+
+    private String newAccount() {
+        String document = UUID.randomUUID().toString().substring(0, 20);
+        useCase.createAccount(new CreateAccountRequest("Cliente concurrente", document, null, CREDIT_LIMIT, null));
+        return document;
+    }
+
+    // Devuelve cuántas operaciones se aceptaron; los rechazos por límite o saldo son esperables
+    private int runInParallel(int operations, Consumer<Integer> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < operations; i++) {
+                int index = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        operation.accept(index);
+                        return true;
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    accepted++;
+                }
+            }
+            return accepted;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertBalanceConserved(AccountReceivable account) {
+        BigDecimal ledger = BigDecimal.ZERO;
+        for (DebtTransaction transaction : repository.findTransactionsByAccountId(account.getId())) {
+            ledger = transaction.getType() == TransactionType.DEBIT
+                    ? ledger.add(transaction.getAmount())
+                    : ledger.subtract(transaction.getAmount());
+        }
+        assertEquals(0, ledger.compareTo(account.getTotalDebt()),
+                "Saldo " + account.getTotalDebt() + " distinto de la suma de movimientos " + ledger);
+    }
+}
@@ -0,0 +1,128 @@
+package org.blackequity.application.usecase;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.blackequity.domain.model.Category;
+import org.blackequity.domain.model.Product;
+import org.blackequity.domain.repository.product.ICategoryRepository;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.shared.dto.ProductDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Productos de una categoría sobre un catálogo de 100k productos: proyección a DTO por category_id
+ * (GetProductsByCategoryUseCase) frente al camino anterior, que buscaba la categoría, filtraba por
+ * su nombre con un join y mapeaba entidades a DTO. Se ejecuta con ./gradlew benchmark.
+ */
+@QuarkusTest
+@Tag("benchmark")
+class ProductsByCategoryBenchmarkTest {
+
+    private static final int CATEGORIES = 50;
+    private static final int PRODUCTS_PER_CATEGORY = 2_000;
+    private static final int PERSIST_CHUNK = 1_000;
+    private static final int WARMUP = 20;
+    private static final int LOOKUPS = 200;
+
+    @Inject
+    GetProductsByCategoryUseCase useCase;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    ICategoryRepository categoryRepository;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void projectionByCategoryIdBeatsNameJoin() {
+        List<Long> categoryIds = seedCatalog();
+
+        long[] oldMicros = measure(categoryIds, this::findByCategoryName);
+        long[] newMicros = measure(categoryIds, useCase::execute);
+
+        long oldMedian = percentile(oldMicros, 50);
+        long newMedian = percentile(newMicros, 50);
+        System.out.printf("Categoría por nombre + entidades: p50 %d us, p99 %d us%n", oldMedian, percentile(oldMicros, 99));
+        System.out.printf("Categoría por id + proyección DTO: p50 %d us, p99 %d us%n", newMedian, percentile(newMicros, 99));
+        assertTrue(newMedian < oldMedian,
+                "La proyección no mejora al camino anterior: p50 " + newMedian + " us frente a " + oldMedian + " us");
+    }
+
+    // Camino anterior de GetProductsByCategoryUseCase y ProductService.getProductsByCategory
+    private List<ProductDTO> findByCategoryName(Long categoryId) {
+        Category category = categoryRepository.findById(categoryId)
+                .orElseThrow(() -> new IllegalArgumentException("Category not found with id: " + categoryId));
+        return productRepository.findByCategoryName(category.getName()).stream()
+                .map(p -> new ProductDTO(p.getId(), p.getName(), p.getPrice(), p.getStock(), p.getMinStock()))
+                .toList();
+    }
+
+    private List<Long> seedCatalog() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Long> categoryIds = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES; c++) {
+            int categoryIndex = c;
+            categoryIds.add(QuarkusTransaction.requiringNew().call(() -> {
+                Category category = new Category();
+                category.setName("Benchmark " + run + " " + categoryIndex);
+                entityManager.persist(category);
+                for (int i = 0; i < PRODUCTS_PER_CATEGORY; i++) {
+                    Product product = new Product();
+                    product.setName("Producto " + categoryIndex + "-" + i);
+                    product.setPrice(BigDecimal.ONE);
+                    product.setStock(BigDecimal.TEN);
+                    product.setMinStock(BigDecimal.ONE);
+                    // Sin addProduct: tras clear() cargaría la colección de productos de la categoría
+                    product.setCategory(category);
+                    entityManager.persist(product);
+                    if ((i + 1) % PERSIST_CHUNK == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        category = entityManager.getReference(Category.class, category.getId());
+                    }
+                }
+                return category.getId();
+            }));
+        }
+        return categoryIds;
+    }
+
+    // Cada consulta en su propia transacción, como una petición: sin entidades ya cargadas en la sesión
+    private long[] measure(List<Long> categoryIds, Function<Long, List<ProductDTO>> lookup) {
+        for (int i = 0; i < WARMUP; i++) {
+            Long categoryId = categoryIds.get(i % categoryIds.size());
+            QuarkusTransaction.requiringNew().call(() -> lookup.apply(categoryId));
+        }
+        long[] micros = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            Long categoryId = categoryIds.get(i % categoryIds.size());
+            long start = System.nanoTime();
+            List<ProductDTO> products = QuarkusTransaction.requiringNew().call(() -> lookup.apply(categoryId));
+            micros[i] = (System.nanoTime() - start) / 1_000;
+            assertEquals(PRODUCTS_PER_CATEGORY, products.size());
+        }
+        return micros;
+    }
+
+    private static long percentile(long[] values, int percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
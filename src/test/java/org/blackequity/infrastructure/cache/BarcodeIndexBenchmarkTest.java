@@ -0,0 +1,101 @@
+package org.blackequity.infrastructure.cache;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Búsquedas sobre 1M de códigos (EAN-13 y un 10% de SKU alfanuméricos) en orden aleatorio, frente a
+ * un HashMap&lt;String, Long&gt; como referencia. Se ejecuta con ./gradlew benchmark; JMH corre en la
+ * misma JVM de la tarea (forks 0).
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BarcodeIndexBenchmarkTest {
+
+    private static final int CODES = 1 << 20;
+    private static final double MAX_LOOKUP_NANOS = 500;
+
+    private BarcodeIndex index;
+    private Map<String, Long> baseline;
+    private String[] lookups;
+    private int cursor;
+
+    @Setup
+    public void buildIndex() {
+        index = new BarcodeIndex();
+        baseline = new HashMap<>();
+        String[] codes = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            codes[i] = i % 10 == 0 ? "SKU-" + i : String.format("750%010d", i);
+            index.put(codes[i], i + 1L);
+            baseline.put(codes[i], i + 1L);
+        }
+        // Orden aleatorio: un recorrido secuencial favorecería a la caché de CPU
+        Random random = new Random(42);
+        for (int i = CODES - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = codes[i];
+            codes[i] = codes[j];
+            codes[j] = swap;
+        }
+        // Copias como las que arma el escáner: con las mismas instancias HashMap resolvería equals por identidad
+        lookups = new String[CODES];
+        for (int i = 0; i < CODES; i++) {
+            lookups[i] = new String(codes[i].toCharArray());
+        }
+    }
+
+    @Benchmark
+    public OptionalLong barcodeIndex() {
+        return index.find(lookups[cursor++ & (CODES - 1)]);
+    }
+
+    @Benchmark
+    public Long hashMap() {
+        return baseline.get(lookups[cursor++ & (CODES - 1)]);
+    }
+
+    @Test
+    void lookupsStayUnderHalfAMicrosecond() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(getClass().getName() + ".")
+                .forks(0)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            double nanos = result.getPrimaryResult().getScore();
+            System.out.printf("%s sobre %d códigos: %.1f ns por búsqueda%n", benchmark, CODES, nanos);
+            if (benchmark.endsWith(".barcodeIndex")) {
+                assertTrue(nanos < MAX_LOOKUP_NANOS, "Búsqueda de código lenta: " + nanos + " ns");
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.blackequity.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarcodeIndexTest {
+
+    @Test
+    void findsNumericAndAlphanumericCodes() {
+        BarcodeIndex index = new BarcodeIndex();
+        index.put("7501055363032", 1L);
+        index.put("SKU-ABC-1", 2L);
+
+        assertEquals(OptionalLong.of(1L), index.find("7501055363032"));
+        assertEquals(OptionalLong.of(2L), index.find("SKU-ABC-1"));
+        assertTrue(index.find("7501055363033").isEmpty());
+        assertTrue(index.find("SKU-ABC-2").isEmpty());
+    }
+
+    @Test
+    void leadingZerosAreDistinctCodes() {
+        BarcodeIndex index = new BarcodeIndex();
+        index.put("012345678905", 1L);
+        index.put("12345678905", 2L);
+
+        assertEquals(OptionalLong.of(1L), index.find("012345678905"));
+        assertEquals(OptionalLong.of(2L), index.find("12345678905"));
+    }
+
+    @Test
+    void codesLongerThanSeventeenDigitsUseTheAlphanumericMap() {
+        BarcodeIndex index = new BarcodeIndex();
+        index.put("123456789012345678", 7L);
+
+        assertEquals(OptionalLong.of(7L), index.find("123456789012345678"));
+    }
+
+    @Test
+    void reassigningACodeKeepsSizeAndUpdatesProduct() {
+        BarcodeIndex index = new BarcodeIndex();
+        index.put("7790895000997", 1L);
+        index.put("7790895000997", 9L);
+
+        assertEquals(1, index.size());
+        assertEquals(OptionalLong.of(9L), index.find("7790895000997"));
+    }
+
+    @Test
+    void survivesResizes() {
+        BarcodeIndex index = new BarcodeIndex();
+        for (long i = 1; i <= 10_000; i++) {
+            index.put(String.format("%013d", i), i);
+        }
+
+        assertEquals(10_000, index.size());
+        for (long i = 1; i <= 10_000; i++) {
+            assertEquals(OptionalLong.of(i), index.find(String.format("%013d", i)));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.blackequity.infrastructure.config;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.blackequity.domain.model.Category;
+import org.blackequity.domain.model.Product;
+import org.blackequity.domain.repository.product.ICategoryRepository;
+import org.blackequity.domain.repository.product.IProductRepository;
+import org.blackequity.shared.dto.CategoryChangeDTO;
+import org.blackequity.shared.dto.ProductChangeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Filas anteriores a change_version (default 0): tras el mantenimiento de arranque aparecen en la
+ * primera sincronización (since=0) con versiones distintas entre sí.
+ */
+@QuarkusTest
+class SchemaMaintenanceTest {
+
+    @Inject
+    SchemaMaintenance schemaMaintenance;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    IProductRepository productRepository;
+
+    @Inject
+    ICategoryRepository categoryRepository;
+
+    @Test
+    void preExistingRowsAppearInFirstSync() {
+        Long[] ids = QuarkusTransaction.requiringNew().call(() -> {
+            Category category = new Category();
+            category.setName("Previa " + UUID.randomUUID());
+            entityManager.persist(category);
+            Product first = legacyProduct(category, "Previo 1");
+            Product second = legacyProduct(category, "Previo 2");
+            entityManager.flush();
+            // Estado de una base migrada: la columna nueva se rellenó con el default
+            entityManager.createNativeQuery("UPDATE category SET change_version = 0 WHERE id = :id")
+                    .setParameter("id", category.getId())
+                    .executeUpdate();
+            entityManager.createNativeQuery("UPDATE product SET change_version = 0 WHERE id IN (:ids)")
+                    .setParameter("ids", List.of(first.getId(), second.getId()))
+                    .executeUpdate();
+            return new Long[]{category.getId(), first.getId(), second.getId()};
+        });
+
+        schemaMaintenance.onStart(null);
+
+        List<ProductChangeDTO> products = QuarkusTransaction.requiringNew().call(() ->
+                productRepository.findChangedSince(0, Integer.MAX_VALUE));
+        List<Long> versions = products.stream()
+                .filter(p -> p.getId().equals(ids[1]) || p.getId().equals(ids[2]))
+                .map(ProductChangeDTO::getChangeVersion)
+                .distinct()
+                .toList();
+        assertEquals(2, versions.size(), "Cada producto previo debe tener su propia versión");
+        assertTrue(versions.stream().allMatch(v -> v > 0));
+
+        List<CategoryChangeDTO> categories = QuarkusTransaction.requiringNew().call(() ->
+                categoryRepository.findChangedSince(0, Integer.MAX_VALUE));
+        assertTrue(categories.stream().anyMatch(c -> c.getId().equals(ids[0]) && c.getChangeVersion() > 0));
+    }
+
+    private Product legacyProduct(Category category, String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.ONE);
+        product.setStock(BigDecimal.TEN);
+        product.setMinStock(BigDecimal.ZERO);
+        category.addProduct(product);
+        entityManager.persist(product);
+        return product;
+    }
+}
@@ -0,0 +1,18 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@QuarkusTest
+class AtomicStockMutationConcurrencyTest extends StockMutationConcurrencyTestBase {
+
+    @Test
+    void reportsAtomicStrategyWithoutConflicts() {
+        assertEquals("atomic", engine.getStats().getStrategy());
+        assertEquals(0, engine.getStats().getConflicts());
+        assertTrue(engine.getStats().getUpdateWaitMillis() >= 0);
+    }
+}
@@ -0,0 +1,22 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+@QuarkusTest
+@TestProfile(OptimisticStockMutationConcurrencyTest.OptimisticStrategy.class)
+class OptimisticStockMutationConcurrencyTest extends StockMutationConcurrencyTestBase {
+
+    // Con 16 hilos sobre una fila los reintentos por defecto (5) se agotan: se amplían para la prueba
+    public static class OptimisticStrategy implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "stock.mutation.strategy", "optimistic",
+                    "stock.mutation.max-retries", "1000");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.blackequity.infrastructure.repository.stock;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.blackequity.domain.dto.stock.StockMutationResult;
+import org.blackequity.domain.dto.stock.StockMutationStatus;
+import org.blackequity.domain.model.Category;
+import org.blackequity.domain.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Descuentos concurrentes sobre un mismo producto: ningún delta se pierde ni se aplica dos veces
+ * y, con reject-negative, el stock nunca baja de cero. Cada subclase fija la estrategia.
+ */
+abstract class StockMutationConcurrencyTestBase {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 5_000;
+
+    @Inject
+    StockMutationEngine engine;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    void parallelDecrementsAreAllApplied() throws Exception {
+        BigDecimal initialStock = BigDecimal.valueOf(OPERATIONS * 2L);
+        Long productId = newProduct(initialStock);
+
+        List<StockMutationResult> results = runInParallel(productId, false);
+
+        long applied = results.stream().filter(StockMutationResult::isApplied).count();
+        assertEquals(OPERATIONS, applied);
+        assertStock(productId, initialStock.subtract(BigDecimal.valueOf(applied)), applied);
+    }
+
+    @Test
+    void parallelDecrementsNeverGoNegative() throws Exception {
+        Long productId = newProduct(new BigDecimal("100"));
+
+        List<StockMutationResult> results = runInParallel(productId, true);
+
+        long applied = results.stream().filter(StockMutationResult::isApplied).count();
+        long rejected = results.stream().filter(r -> r.getStatus() == StockMutationStatus.REJECTED_NEGATIVE).count();
+        assertEquals(100, applied);
+        assertEquals(OPERATIONS - 100, rejected);
+        assertStock(productId, BigDecimal.ZERO, applied);
+    }
+
+    private Long newProduct(BigDecimal stock) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Category category = new Category();
+            category.setName("Concurrencia " + UUID.randomUUID());
+            entityManager.persist(category);
+
+            Product product = new Product();
+            product.setName("Producto concurrente");
+            product.setPrice(BigDecimal.ONE);
+            product.setStock(stock);
+            product.setMinStock(BigDecimal.ZERO);
+            category.addProduct(product);
+            entityManager.persist(product);
+            entityManager.flush();
+            return product.getId();
+        });
+    }
+
+    private List<StockMutationResult> runInParallel(Long productId, boolean rejectNegative) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<StockMutationResult>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < OPERATIONS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return engine.apply(productId, BigDecimal.ONE.negate(), rejectNegative);
+                }));
+            }
+            start.countDown();
+            List<StockMutationResult> results = new ArrayList<>(OPERATIONS);
+            for (Future<StockMutationResult> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // La versión sube exactamente una vez por delta aplicado
+    private void assertStock(Long productId, BigDecimal expectedStock, long appliedDeltas) {
+        Object[] row = QuarkusTransaction.requiringNew().call(() -> entityManager.createQuery(
+                        "SELECT p.stock, p.version FROM Product p WHERE p.id = :id", Object[].class)
+                .setParameter("id", productId)
+                .getSingleResult());
+        assertEquals(0, expectedStock.compareTo((BigDecimal) row[0]), "Stock final " + row[0]);
+        assertEquals(appliedDeltas, (Long) row[1]);
+    }
+}
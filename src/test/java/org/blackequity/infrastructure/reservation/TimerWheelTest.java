@@ -0,0 +1,61 @@
+package org.blackequity.infrastructure.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    private static final long TICK = 100;
+    private static final long START = 1_000_000;
+
+    @Test
+    void expiresOnlyOnceDeadlineIsReached() {
+        TimerWheel wheel = new TimerWheel(TICK, 8, START);
+        wheel.schedule("a", START + 250);
+
+        assertTrue(wheel.advance(START + 200).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 300));
+        assertTrue(wheel.advance(START + 400).isEmpty());
+    }
+
+    @Test
+    void deadlinesBeyondOneRotationWaitForTheirRound() {
+        TimerWheel wheel = new TimerWheel(TICK, 8, START);
+        // 8 buckets de 100 ms: 1000 ms cae en el mismo bucket que 200 ms pero una vuelta después
+        wheel.schedule("near", START + 200);
+        wheel.schedule("far", START + 1000);
+
+        assertEquals(List.of("near"), wheel.advance(START + 200));
+        assertTrue(wheel.advance(START + 900).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(START + 1000));
+    }
+
+    @Test
+    void pastDeadlinesAreNotLost() {
+        TimerWheel wheel = new TimerWheel(TICK, 8, START);
+        wheel.advance(START + 500);
+        // Ya procesado el tick 5: la reserva vencida se programa en un tick futuro, no en uno pasado
+        wheel.schedule("late", START + 100);
+
+        assertEquals(List.of("late"), wheel.advance(START + 700));
+    }
+
+    @Test
+    void largeJumpCollectsEveryDueKey() {
+        TimerWheel wheel = new TimerWheel(TICK, 16, START);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add("r" + i);
+            wheel.schedule("r" + i, START + i * 37L);
+        }
+
+        List<String> expired = wheel.advance(START + 100 * 37L);
+        assertEquals(keys.size(), expired.size());
+        assertTrue(expired.containsAll(keys));
+    }
+}
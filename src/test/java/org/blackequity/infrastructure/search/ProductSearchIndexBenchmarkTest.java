@@ -0,0 +1,84 @@
+package org.blackequity.infrastructure.search;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latencia del autocompletado sobre un catálogo sintético de 100k productos, medida con JMH en modo
+ * SampleTime. Se ejecuta con ./gradlew benchmark; JMH corre en la misma JVM de la tarea (forks 0).
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProductSearchIndexBenchmarkTest {
+
+    private static final int PRODUCTS = 100_000;
+    private static final double MAX_P99_MICROS = 1_000;
+
+    private static final String[] ITEMS = {"Leche", "Queso", "Pan", "Galletas", "Refresco", "Agua", "Arroz",
+            "Frijol", "Aceite", "Azúcar", "Café", "Jabón", "Detergente", "Cereal", "Atún", "Salsa", "Papas", "Yogur"};
+    private static final String[] BRANDS = {"Alpura", "Lala", "Bimbo", "Gamesa", "Coca", "Bonafont", "Verde Valle",
+            "La Costeña", "Nutrioli", "Zulka", "Nescafé", "Zote", "Ariel", "Kellogg", "Dolores", "Valentina"};
+    private static final String[] CATEGORIES = {"Lácteos", "Panadería", "Bebidas", "Abarrotes", "Limpieza", "Botanas"};
+
+    @Param({"a", "pa", "leche ent", "galetas"})
+    public String query;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void buildCatalog() {
+        index = new ProductSearchIndex();
+        for (long id = 1; id <= PRODUCTS; id++) {
+            int i = (int) id;
+            String name = ITEMS[i % ITEMS.length] + " " + BRANDS[(i / ITEMS.length) % BRANDS.length]
+                    + " " + (i % 997) + "g";
+            index.index(id, name, CATEGORIES[i % CATEGORIES.length]);
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 20);
+    }
+
+    @Test
+    void p99UnderOneMillisecond() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(getClass().getName() + ".search")
+                .forks(0)
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        for (RunResult result : results) {
+            String param = result.getParams().getParam("query");
+            double p50 = result.getPrimaryResult().getStatistics().getPercentile(50);
+            double p99 = result.getPrimaryResult().getStatistics().getPercentile(99);
+            System.out.printf("Búsqueda \"%s\" sobre %d productos: p50 %.1f us, p99 %.1f us%n", param, PRODUCTS, p50, p99);
+            assertTrue(p99 < MAX_P99_MICROS, "Búsqueda \"" + param + "\" lenta: p99 " + p99 + " us");
+        }
+    }
+}
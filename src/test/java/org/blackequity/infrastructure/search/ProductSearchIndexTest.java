@@ -0,0 +1,80 @@
+package org.blackequity.infrastructure.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void normalizesAccentsCaseAndPunctuation() {
+        assertEquals("cafe de olla 250g", ProductSearchIndex.normalize("  Café de Olla, 250g "));
+        assertEquals("", ProductSearchIndex.normalize(null));
+    }
+
+    @Test
+    void ranksNamePrefixAboveCategoryMatches() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.index(1L, "Leche entera 1L", "Lácteos");
+        index.index(2L, "Queso fresco", "Lácteos");
+        index.index(3L, "Pan de leche", "Panadería");
+
+        List<Long> results = index.search("leche", 10);
+        assertEquals(1L, results.get(0));
+        assertTrue(results.contains(3L));
+        assertFalse(results.contains(2L));
+
+        assertTrue(index.search("lacteos", 10).containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void toleratesTypos() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.index(1L, "Galletas de chocolate", "Snacks");
+        index.index(2L, "Detergente", "Limpieza");
+
+        assertEquals(List.of(1L), index.search("galetas", 10));
+    }
+
+    @Test
+    void renamedProductsDropTheirOldTokens() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.index(1L, "Refresco cola 600ml", "Bebidas");
+        index.index(1L, "Agua mineral 600ml", "Bebidas");
+
+        assertFalse(index.search("refresco", 10).contains(1L));
+        assertEquals(1L, index.search("agua", 10).get(0));
+
+        index.index(1L, "Agua mineral 600ml", "Aguas");
+        assertFalse(index.search("bebidas", 10).contains(1L));
+    }
+
+    @Test
+    void shortPrefixesReturnAtMostLimit() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        for (long id = 1; id <= 5_000; id++) {
+            index.index(id, "Producto " + id, "Abarrotes");
+        }
+
+        List<Long> results = index.search("p", 20);
+        assertEquals(20, results.size());
+        assertEquals(results.size(), results.stream().distinct().count());
+    }
+
+    @Test
+    void shortestMatchesSurviveThePrefixCut() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        // "p0001".."p3000" van antes que "pan" en orden lexicográfico y agotan el corte de candidatos
+        for (long id = 1; id <= 3_000; id++) {
+            index.index(id, String.format("P%04d", id), "Abarrotes");
+        }
+        index.index(9_999L, "Pan", "Panadería");
+
+        assertEquals(9_999L, index.search("p", 5).get(0));
+        assertEquals(9_999L, index.search("pa", 5).get(0));
+    }
+}